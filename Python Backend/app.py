@@ -34,38 +34,31 @@ CORS(app, resources={
 
 BASE_URL = "http://localhost:8080"
 
+# Last catalog received from the Spring backend, reused while its version is unchanged
+catalog_cache = {"version": None, "courses": []}
+
 @app.route('/users/<int:user_id>/recommended-courses', methods=['GET'])
 def get_recommended_courses(user_id):
     try:
-        # Get user details
-        user_response = requests.get(f"{BASE_URL}/users/{user_id}")
-        if user_response.status_code != 200:
+        # Get interests, course status ids and the catalog in one call
+        params = {"catalogVersion": catalog_cache["version"]} if catalog_cache["version"] else {}
+        input_response = requests.get(f"{BASE_URL}/users/{user_id}/recommendation-input", params=params)
+        if input_response.status_code == 404:
             return jsonify({"error": "User not found"}), 404
-        user = user_response.json()
-
-        # Get in-progress courses
-        in_progress_courses_response = requests.get(f"{BASE_URL}/users/{user_id}/in-progress-courses")
-        if in_progress_courses_response.status_code != 200:
-            return jsonify({"error": "Failed to get in-progress courses"}), 500
-        in_progress_courses = in_progress_courses_response.json()
-
-        # Get in-progress courses
-        enrolled_courses_response = requests.get(f"{BASE_URL}/users/{user_id}/enrolled-courses")
-        if enrolled_courses_response.status_code != 200:
-            return jsonify({"error": "Failed to get in-progress courses"}), 500
-        enrolled_courses = enrolled_courses_response.json()
-
-        # Get completed courses
-        completed_courses_response = requests.get(f"{BASE_URL}/users/{user_id}/completed-courses")
-        if completed_courses_response.status_code != 200:
-            return jsonify({"error": "Failed to get completed courses"}), 500
-        completed_courses = completed_courses_response.json()
-
-        # Get all courses
-        all_courses_response = requests.get(f"{BASE_URL}/courses")
-        if all_courses_response.status_code != 200:
-            return jsonify({"error": "Failed to get all courses"}), 500
-        all_courses = all_courses_response.json()
+        if input_response.status_code != 200:
+            return jsonify({"error": "Failed to get recommendation input"}), 500
+        recommendation_input = input_response.json()
+
+        if recommendation_input["catalog"] is not None:
+            catalog_cache["courses"] = recommendation_input["catalog"]
+            catalog_cache["version"] = recommendation_input["catalogVersion"]
+        all_courses = catalog_cache["courses"]
+        courses_by_id = {course["id"]: course for course in all_courses}
+
+        in_progress_courses = [courses_by_id[i] for i in recommendation_input["inProgressCourseIds"] if i in courses_by_id]
+        enrolled_courses = [courses_by_id[i] for i in recommendation_input["enrolledCourseIds"] if i in courses_by_id]
+        completed_courses = [courses_by_id[i] for i in recommendation_input["completedCourseIds"] if i in courses_by_id]
+        user = {"interests": recommendation_input["interests"]}
 
         # Check if we have enough data
         if not all_courses:
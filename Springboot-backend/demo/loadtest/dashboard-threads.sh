@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Throughput and p99 of the dashboard endpoints with requests on platform threads, then on virtual threads.
+# Both runs use the same Java 21 build and JVM; only the virtual-threads Spring profile differs.
+# Needs Java 21 on the PATH, wrk, and the MySQL database from application.properties with a user enrolled in courses.
+#
+# usage: loadtest/dashboard-threads.sh [user-id] [connections] [duration]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+USER_ID=${1:-1}
+CONNECTIONS=${2:-200}
+DURATION=${3:-60s}
+PORT=${PORT:-8080}
+PATHS=("/users/$USER_ID/enrolled-courses" "/users/$USER_ID/in-progress-courses" "/courses")
+
+./mvnw -q -Pvirtual-threads -DskipTests package
+JAR=$(ls target/demo-*.jar | grep -v plain | head -1)
+
+# run <mode> <jvm option> <application argument>
+run() {
+    local mode=$1
+    java $2 -jar "$JAR" --server.port="$PORT" $3 > "target/loadtest-$mode.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+    for _ in $(seq 120); do
+        curl -sf "http://localhost:$PORT/courses" > /dev/null && break
+        sleep 1
+    done
+
+    for path in "${PATHS[@]}"; do
+        wrk -t4 -c"$CONNECTIONS" -d10s "http://localhost:$PORT$path" > /dev/null
+        local result
+        result=$(wrk -t4 -c"$CONNECTIONS" -d"$DURATION" --latency "http://localhost:$PORT$path")
+        printf '%-9s %-32s %10s req/s   p99 %-9s non-2xx %s\n' "$mode" "$path" \
+            "$(awk '/Requests\/sec/ {print $2}' <<< "$result")" \
+            "$(awk '$1 == "99%" {print $2}' <<< "$result")" \
+            "$(awk '/Non-2xx/ {print $5}' <<< "$result" | grep . || echo 0)"
+    done
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    trap - EXIT
+}
+
+run platform "" ""
+run virtual "-Djdk.tracePinnedThreads=short" "--spring.profiles.active=virtual-threads"
+echo "Server logs: target/loadtest-platform.log, target/loadtest-virtual.log"
@@ -0,0 +1,96 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.entity.Question;
+import com.example.demo.entity.Quiz;
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.example.demo.entity.User;
+import com.example.demo.service.CourseService;
+import com.example.demo.service.UserService;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Seeds courses through CourseService the way the admin UI creates them. Every question has four options
+// and option 1 is the correct one.
+final class Catalog {
+
+    static final int OPTIONS = 4;
+    static final int CORRECT_OPTION = 1;
+
+    private final CourseService courseService;
+    private final UserService userService;
+
+    Catalog(ApplicationContext context) {
+        this.courseService = context.getBean(CourseService.class);
+        this.userService = context.getBean(UserService.class);
+    }
+
+    List<Course> addCourses(int courses, int lessons, int questions) {
+        List<Course> added = new ArrayList<>(courses);
+        for (int c = 0; c < courses; c++) {
+            Course course = new Course();
+            course.setName("Course " + c);
+            course.setDescription("Description of course " + c);
+            course.setIntroductoryQuiz(quiz("Introduction " + c, questions));
+            course.setFinalQuiz(quiz("Final " + c, questions));
+            List<Lesson> courseLessons = new ArrayList<>(lessons);
+            for (int l = 0; l < lessons; l++) {
+                Lesson lesson = new Lesson();
+                lesson.setName("Lesson " + c + "." + l);
+                lesson.setQuiz(quiz("Lesson quiz " + c + "." + l, questions));
+                courseLessons.add(lesson);
+            }
+            course.setLessons(courseLessons);
+            added.add(courseService.addCourse(course));
+        }
+        return added;
+    }
+
+    User addUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setMailId(name + "@example.com");
+        user.setPassword("password");
+        user.setEnrolledCourses(new ArrayList<>());
+        return userService.registerUser(user);
+    }
+
+    // One answer per question, the first half of them correct
+    static List<QuestionSummary> answers(Quiz quiz) {
+        List<Question> questions = quiz.getQuestions();
+        List<QuestionSummary> answers = new ArrayList<>(questions.size());
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = new Question();
+            question.setId(questions.get(i).getId());
+            QuestionSummary answer = new QuestionSummary();
+            answer.setQuestion(question);
+            answer.setSelectedOptionIndex(i < questions.size() / 2 ? CORRECT_OPTION : CORRECT_OPTION + 1);
+            answers.add(answer);
+        }
+        return answers;
+    }
+
+    private static Quiz quiz(String name, int questions) {
+        Quiz quiz = new Quiz();
+        quiz.setName(name);
+        List<Question> quizQuestions = new ArrayList<>(questions);
+        for (int q = 0; q < questions; q++) {
+            Question question = new Question();
+            question.setName(name + " question " + q);
+            List<Question.Option> options = new ArrayList<>(OPTIONS);
+            for (int o = 0; o < OPTIONS; o++) {
+                Question.Option option = new Question.Option();
+                option.setText("Option " + o);
+                option.setCorrect(o == CORRECT_OPTION);
+                options.add(option);
+            }
+            question.setOptions(options);
+            quizQuestions.add(question);
+        }
+        quiz.setQuestions(quizQuestions);
+        return quiz;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Course;
+import com.example.demo.service.CourseService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of the full course graph returned by GET /courses, already loaded, so only
+// serialization is measured
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseSerializationBenchmark {
+
+    private static final int LESSONS = 5;
+    private static final int QUESTIONS = 5;
+
+    @Param({"10", "100", "1000"})
+    private int courses;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private List<Course> catalog;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        context = BenchmarkApplication.start("serialization" + courses);
+        new Catalog(context).addCourses(courses, LESSONS, QUESTIONS);
+        objectMapper = context.getBean(ObjectMapper.class);
+        catalog = context.getBean(CourseService.class).getAllCourses();
+        // Loads every lazy association once
+        objectMapper.writeValueAsBytes(catalog);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serializeCatalog() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] serializeCourse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(catalog.get(catalog.size() - 1));
+    }
+}
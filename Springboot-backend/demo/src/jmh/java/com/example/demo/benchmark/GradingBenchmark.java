@@ -0,0 +1,50 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.GradeResult;
+import com.example.demo.entity.Course;
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.example.demo.service.grading.GradingEngine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Server-side grading of one submission against a cached answer key (what UserService.calculateScore used to do)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradingBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int questions;
+
+    private ConfigurableApplicationContext context;
+    private GradingEngine gradingEngine;
+    private Long quizId;
+    private List<QuestionSummary> answers;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("grading" + questions);
+        Course course = new Catalog(context).addCourses(1, 1, questions).get(0);
+        quizId = course.getIntroductoryQuiz().getId();
+        answers = Catalog.answers(course.getIntroductoryQuiz());
+        gradingEngine = context.getBean(GradingEngine.class);
+        // Compiles and caches the answer key
+        gradingEngine.grade(quizId, answers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public GradeResult grade() {
+        return gradingEngine.grade(quizId, answers);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.service.CourseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// CourseService.getLesson: cached course lookup plus the stream filter over its lessons.
+// The last lesson is the worst case for the linear scan.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LessonLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int lessons;
+
+    private ConfigurableApplicationContext context;
+    private CourseService courseService;
+    private Long courseId;
+    private Long firstLessonId;
+    private Long lastLessonId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("lessons" + lessons);
+        Course course = new Catalog(context).addCourses(1, lessons, 1).get(0);
+        List<Lesson> courseLessons = course.getLessons();
+        courseId = course.getId();
+        firstLessonId = courseLessons.get(0).getId();
+        lastLessonId = courseLessons.get(courseLessons.size() - 1).getId();
+        courseService = context.getBean(CourseService.class);
+        courseService.getLesson(courseId, lastLessonId).orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Lesson> firstLesson() {
+        return courseService.getLesson(courseId, firstLessonId);
+    }
+
+    @Benchmark
+    public Optional<Lesson> lastLesson() {
+        return courseService.getLesson(courseId, lastLessonId);
+    }
+}
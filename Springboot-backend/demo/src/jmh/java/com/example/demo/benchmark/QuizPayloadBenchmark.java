@@ -0,0 +1,70 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// How UserController.submitIntroQuiz binds answers: the body arrives as a Map and is converted with
+// ObjectMapper.convertValue. readTyped is the same body read straight into the list, for comparison.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizPayloadBenchmark {
+
+    private static final TypeReference<List<QuestionSummary>> QUESTION_SUMMARIES = new TypeReference<>() {};
+
+    @Param({"10", "100", "1000"})
+    private int answers;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private byte[] body;
+    private byte[] answersJson;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start("payload" + answers);
+        objectMapper = context.getBean(ObjectMapper.class);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < answers; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"question\":{\"id\":").append(i + 1)
+                    .append("},\"selectedOptionIndex\":").append(i % Catalog.OPTIONS).append('}');
+        }
+        answersJson = json.append(']').toString().getBytes();
+        body = ("{\"questionSummaries\":" + new String(answersJson) + "}").getBytes();
+        payload = objectMapper.readValue(body, new TypeReference<>() {});
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<QuestionSummary> convertValue() {
+        return objectMapper.convertValue(payload.get("questionSummaries"), QUESTION_SUMMARIES);
+    }
+
+    @Benchmark
+    public List<QuestionSummary> readBodyAndConvert() throws IOException {
+        Map<String, Object> map = objectMapper.readValue(body, new TypeReference<>() {});
+        return objectMapper.convertValue(map.get("questionSummaries"), QUESTION_SUMMARIES);
+    }
+
+    @Benchmark
+    public List<QuestionSummary> readTyped() throws IOException {
+        return objectMapper.readValue(answersJson, QUESTION_SUMMARIES);
+    }
+}
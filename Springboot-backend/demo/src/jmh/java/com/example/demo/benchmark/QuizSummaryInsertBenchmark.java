@@ -0,0 +1,52 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Quiz;
+import com.example.demo.entity.QuizSummary;
+import com.example.demo.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Synchronous intro-quiz submissions per second: grading, the QuizSummary insert and its batched answer rows.
+// Against in-memory H2, so it shows statement count and batching effects rather than MySQL latency.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizSummaryInsertBenchmark {
+
+    @Param({"5", "50"})
+    private int answers;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private Long userId;
+    private Long courseId;
+    private Quiz quiz;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("inserts" + answers);
+        Catalog catalog = new Catalog(context);
+        Course course = catalog.addCourses(1, 1, answers).get(0);
+        courseId = course.getId();
+        quiz = course.getIntroductoryQuiz();
+        userId = catalog.addUser("learner").getId();
+        userService = context.getBean(UserService.class);
+        userService.enrollCourse(userId, courseId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public QuizSummary submitIntroQuiz() {
+        return userService.addIntroQuizSummary(userId, courseId, Catalog.answers(quiz));
+    }
+}
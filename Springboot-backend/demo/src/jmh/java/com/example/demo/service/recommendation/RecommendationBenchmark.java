@@ -0,0 +1,61 @@
+package com.example.demo.service.recommendation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Scoring one recommendation query against the TF-IDF index. The corpus is synthetic: course texts draw words
+// from a skewed vocabulary, so common words have long postings like real course text. Lives in the index's
+// package because building 100k courses through the database would take longer than the measurement.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RecommendationBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int WORDS_PER_COURSE = 80;
+    private static final int PROFILE_COURSES = 5;
+
+    @Param({"10000", "100000"})
+    private int courses;
+
+    private CourseVectorIndex index;
+    private List<String> interests;
+    private List<Long> profileCourseIds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new CourseVectorIndex();
+        for (long id = 1; id <= courses; id++) {
+            index.put(id, text(random, WORDS_PER_COURSE));
+        }
+        index.rebuild();
+        interests = List.of(text(random, 3), text(random, 3));
+        profileCourseIds = new ArrayList<>();
+        for (int i = 0; i < PROFILE_COURSES; i++) {
+            profileCourseIds.add(1 + (long) random.nextInt(courses));
+        }
+    }
+
+    @Benchmark
+    public long[] recommend() {
+        return index.topK(index.query(interests, profileCourseIds), profileCourseIds, 10);
+    }
+
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            // Cubing a uniform value favours low word numbers, roughly like word frequencies in prose
+            double skew = Math.pow(random.nextDouble(), 3);
+            text.append("word").append((int) (skew * VOCABULARY)).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.entity.Question;
+import com.example.demo.entity.Quiz;
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.example.demo.entity.User;
+import com.example.demo.service.CourseService;
+import com.example.demo.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+// Seeds courses, users, enrollments (Progress rows) and quiz attempts (QuizSummary rows) through the services,
+// so the data goes through the same validation, id allocation and caches as production writes.
+// Every question has four options and option 1 is the correct one.
+class DataGenerator {
+
+    static final int OPTIONS = 4;
+    static final int CORRECT_OPTION = 1;
+
+    private final CourseService courseService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final LoadTestOptions options;
+
+    final AtomicInteger progressRows = new AtomicInteger();
+    final AtomicInteger quizSummaries = new AtomicInteger();
+
+    DataGenerator(ApplicationContext context, LoadTestOptions options) {
+        this.courseService = context.getBean(CourseService.class);
+        this.userService = context.getBean(UserService.class);
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.options = options;
+    }
+
+    Dataset seed() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(options.getSeedThreads());
+        try {
+            SeededCourse[] courses = new SeededCourse[options.getCourses()];
+            run(executor, courses.length, c -> courses[c] = addCourse(c));
+
+            Long[] users = new Long[options.getUsers()];
+            Map<Long, Set<SeededCourse>> enrollments = new ConcurrentHashMap<>();
+            run(executor, users.length, u -> {
+                users[u] = addUser(u);
+                enrollments.put(users[u], ConcurrentHashMap.newKeySet());
+                // Seeded per user, so the same arguments always produce the same data
+                Random random = new Random(u);
+                for (int e = 0; e < Math.min(options.getEnrollments(), courses.length); e++) {
+                    SeededCourse course = courses[random.nextInt(courses.length)];
+                    if (enrollments.get(users[u]).add(course)) {
+                        enroll(users[u], course, random);
+                    }
+                }
+            });
+            return new Dataset(List.of(courses), List.of(users), enrollments);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SeededCourse addCourse(int c) {
+        Course course = new Course();
+        course.setName("Course " + c);
+        course.setDescription("Description of course " + c);
+        course.setIntroductoryQuiz(quiz("Introduction " + c));
+        course.setFinalQuiz(quiz("Final " + c));
+        List<Lesson> lessons = new ArrayList<>(options.getLessons());
+        for (int l = 0; l < options.getLessons(); l++) {
+            Lesson lesson = new Lesson();
+            lesson.setName("Lesson " + c + "." + l);
+            lesson.setQuiz(quiz("Lesson quiz " + c + "." + l));
+            lessons.add(lesson);
+        }
+        course.setLessons(lessons);
+        Course saved = courseService.addCourse(course);
+
+        List<SeededLesson> seededLessons = new ArrayList<>(saved.getLessons().size());
+        for (Lesson lesson : saved.getLessons()) {
+            seededLessons.add(new SeededLesson(lesson.getId(), json(answers(lesson.getQuiz()))));
+        }
+        return new SeededCourse(saved.getId(), json(answers(saved.getIntroductoryQuiz())), seededLessons);
+    }
+
+    private Long addUser(int u) {
+        User user = new User();
+        user.setName("Learner " + u);
+        user.setMailId("learner" + u + "@example.com");
+        user.setPassword("password");
+        user.setEnrolledCourses(new ArrayList<>());
+        return userService.registerUser(user).getId();
+    }
+
+    private void enroll(Long userId, SeededCourse course, Random random) {
+        userService.enrollCourse(userId, course.getId());
+        progressRows.incrementAndGet();
+        userService.addIntroQuizSummary(userId, course.getId(), answers(course.getIntroAnswers()));
+        quizSummaries.incrementAndGet();
+        for (SeededLesson lesson : course.getLessons()) {
+            if (random.nextDouble() < options.getCompletedLessons()) {
+                userService.addLessonQuizSummary(userId, course.getId(), lesson.getId(), answers(lesson.getAnswers()));
+                quizSummaries.incrementAndGet();
+            }
+        }
+    }
+
+    // One answer per question, the first half of them correct
+    private static List<QuestionSummary> answers(Quiz quiz) {
+        List<Question> questions = quiz.getQuestions();
+        List<QuestionSummary> answers = new ArrayList<>(questions.size());
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = new Question();
+            question.setId(questions.get(i).getId());
+            QuestionSummary answer = new QuestionSummary();
+            answer.setQuestion(question);
+            answer.setSelectedOptionIndex(i < questions.size() / 2 ? CORRECT_OPTION : CORRECT_OPTION + 1);
+            answers.add(answer);
+        }
+        return answers;
+    }
+
+    private Quiz quiz(String name) {
+        Quiz quiz = new Quiz();
+        quiz.setName(name);
+        List<Question> questions = new ArrayList<>(options.getQuestions());
+        for (int q = 0; q < options.getQuestions(); q++) {
+            Question question = new Question();
+            question.setName(name + " question " + q);
+            List<Question.Option> questionOptions = new ArrayList<>(OPTIONS);
+            for (int o = 0; o < OPTIONS; o++) {
+                Question.Option option = new Question.Option();
+                option.setText("Option " + o);
+                option.setCorrect(o == CORRECT_OPTION);
+                questionOptions.add(option);
+            }
+            question.setOptions(questionOptions);
+            questions.add(question);
+        }
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+
+    // A fresh copy per submission, grading writes to the answers
+    private List<QuestionSummary> answers(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<QuestionSummary>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Runs task(0) .. task(count - 1) on the executor and rethrows the first failure
+    private static void run(ExecutorService executor, int count, IntConsumer task) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> task.accept(index)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Seeding failed", e.getCause());
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class SeededLesson {
+        private final Long id;
+        // JSON array of answers, the body of the lesson quiz endpoint
+        private final String answers;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class SeededCourse {
+        private final Long id;
+        private final String introAnswers;
+        private final List<SeededLesson> lessons;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Dataset {
+        private final List<SeededCourse> courses;
+        private final List<Long> users;
+        // What each user is enrolled in, kept up to date by the enroll operation
+        private final Map<Long, Set<SeededCourse>> enrollments;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies in microseconds and failures by status code for one endpoint. Status 0 means no response (I/O error).
+class EndpointStats {
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> failures = new ConcurrentHashMap<>();
+
+    void record(long elapsedNanos, int status) {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (status < 200 || status >= 300) {
+            failures.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+
+    Histogram getLatencies() {
+        return latencies;
+    }
+
+    long getRequests() {
+        return latencies.getTotalCount();
+    }
+
+    long getFailures() {
+        return failures.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    // e.g. {404=3, 500=1}
+    Map<Integer, Long> getFailuresByStatus() {
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        failures.forEach((status, count) -> byStatus.put(status, count.sum()));
+        return byStatus;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.SmartLogisticsApplication;
+import com.example.demo.loadtest.DataGenerator.Dataset;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Starts the application on a random port, seeds it through the services, then runs the request mix for the
+// warmup (discarded) and the measured duration. Arguments are Spring properties: --loadtest.* configures the run
+// (see LoadTestOptions), anything else configures the application, e.g. --spring.profiles.active=virtual-threads.
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource arguments = new SimpleCommandLinePropertySource(args);
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("server.port", "0");
+        defaults.put("spring.jpa.show-sql", "false");
+        // DevTools is on the exec classpath: a rebuild would restart the application mid-run (read as a system
+        // property only), and its SHUTDOWN hook fails against the already closed database
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        defaults.put("spring.autoconfigure.exclude",
+                "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration");
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("logging.level.root", "WARN");
+        defaults.put("logging.level.org.hibernate.orm.deprecation", "ERROR");
+        if (!"mysql".equals(arguments.getProperty("loadtest.database"))) {
+            defaults.put("spring.datasource.url", "jdbc:h2:mem:loadtest"
+                    + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000");
+            defaults.put("spring.datasource.username", "sa");
+            defaults.put("spring.datasource.password", "");
+            defaults.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        }
+        List<String> applicationArgs = new ArrayList<>(List.of(args));
+        // Given arguments win; a property given twice would be joined with a comma
+        defaults.forEach((name, value) -> {
+            if (!arguments.containsProperty(name)) {
+                applicationArgs.add("--" + name + "=" + value);
+            }
+        });
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SmartLogisticsApplication.class)
+                .run(applicationArgs.toArray(new String[0]));
+        try {
+            LoadTestOptions options = Binder.get(context.getEnvironment())
+                    .bind("loadtest", LoadTestOptions.class)
+                    .orElseGet(LoadTestOptions::new);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            long seedStart = System.nanoTime();
+            DataGenerator generator = new DataGenerator(context, options);
+            Dataset dataset = generator.seed();
+            System.out.printf("Seeded %d courses of %d lessons, %d users, %d progress rows and %d quiz summaries in %.1fs%n",
+                    options.getCourses(), options.getLessons(), options.getUsers(), generator.progressRows.get(),
+                    generator.quizSummaries.get(), (System.nanoTime() - seedStart) / 1e9);
+
+            Workload workload = new Workload(options, dataset, port);
+            if (!options.getWarmup().isZero()) {
+                System.out.printf("Warming up for %ds with %d clients%n", options.getWarmup().toSeconds(), options.getClients());
+                workload.run(options.getWarmup());
+            }
+            SqlPerRequest sql = new SqlPerRequest(context.getBean(MeterRegistry.class));
+            sql.mark();
+            System.out.printf("Measuring for %ds with %d clients%n", options.getDuration().toSeconds(), options.getClients());
+            Report report = new Report(workload.run(options.getDuration()), sql, options.getDuration());
+            report.print(System.out);
+            report.write(Path.of(options.getReportDirectory()));
+            System.out.println("Latency histograms: " + options.getReportDirectory() + "/*.hgrm");
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.loadtest;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bound from --loadtest.* arguments, e.g. --loadtest.users=500 --loadtest.mix.enroll=10
+@Data
+public class LoadTestOptions {
+
+    // h2 for a throwaway in-memory database, mysql for the datasource in application.properties
+    private String database = "h2";
+
+    // Seeded volumes
+    private int courses = 50;
+    private int lessons = 8;
+    private int questions = 10;
+    private int users = 200;
+    private int enrollments = 3;
+    private double completedLessons = 0.5;
+    private int seedThreads = 8;
+
+    // Request mix
+    private int clients = 32;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration thinkTime = Duration.ZERO;
+    // Relative weights by operation name, see Operation
+    private Map<String, Integer> mix = new LinkedHashMap<>();
+    // Higher values send more of the traffic to the first courses, 1 spreads it evenly
+    private double popularitySkew = 2.0;
+
+    private String reportDirectory = "target/loadtest";
+}
@@ -0,0 +1,24 @@
+package com.example.demo.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// What a simulated learner does, with the share of requests it gets unless --loadtest.mix.<name> overrides it
+@Getter
+@AllArgsConstructor
+enum Operation {
+    BROWSE_CATALOG("browse-catalog", "GET /courses/catalog", 25),
+    VIEW_COURSE("view-course", "GET /courses/{courseId}", 20),
+    VIEW_LESSON("view-lesson", "GET /courses/{courseId}/lessons/{lessonId}", 10),
+    TAKE_LESSON_QUIZ("take-lesson-quiz", "GET /courses/lessons/{lessonId}/quiz/questions", 5),
+    DASHBOARD("dashboard", "GET /users/{userId}/dashboard", 15),
+    ENROLLED_COURSES("enrolled-courses", "GET /users/{userId}/enrolled-courses", 10),
+    ENROLL("enroll", "POST /users/{userId}/enroll/{courseId}", 5),
+    COMPLETE_LESSON("complete-lesson", "POST /users/{userId}/courses/{courseId}/lessons/{lessonId}/complete", 5),
+    SUBMIT_LESSON_QUIZ("submit-lesson-quiz", "POST /users/{userId}/courses/{courseId}/lessons/{lessonId}/quiz", 5),
+    SUBMIT_INTRO_QUIZ("submit-intro-quiz", "POST /users/{userId}/courses/{courseId}/intro-quiz", 5);
+
+    private final String name;
+    private final String endpoint;
+    private final int defaultWeight;
+}
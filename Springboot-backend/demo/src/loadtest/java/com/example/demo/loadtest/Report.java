@@ -0,0 +1,83 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+// Prints one line per endpoint and writes each latency histogram as an .hgrm percentile file, which the
+// HdrHistogram plotter (hdrhistogram.github.io/HdrHistogram/plotFiles.html) can chart side by side
+class Report {
+
+    private static final String ROW = "%-72s %9s %8s %9s %8s %8s %8s %8s %9s %8s %9s%n";
+
+    private final Map<Operation, EndpointStats> stats;
+    private final SqlPerRequest sql;
+    private final Duration duration;
+
+    Report(Map<Operation, EndpointStats> stats, SqlPerRequest sql, Duration duration) {
+        this.stats = stats;
+        this.sql = sql;
+        this.duration = duration;
+    }
+
+    void print(PrintStream out) {
+        out.printf(ROW, "endpoint", "requests", "failed", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+                "max ms", "sql/req", "rows/req");
+        Histogram total = new Histogram(3);
+        long failed = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            if (endpoint.getRequests() == 0) {
+                continue;
+            }
+            total.add(endpoint.getLatencies());
+            failed += endpoint.getFailures();
+            print(out, entry.getKey().getEndpoint(), endpoint.getLatencies(), endpoint.getFailures(),
+                    String.format("%.1f", sql.statements(entry.getKey())),
+                    String.format("%.0f", sql.rowsRead(entry.getKey())));
+        }
+        print(out, "all", total, failed, "", "");
+        stats.forEach((operation, endpoint) -> {
+            if (endpoint.getFailures() > 0) {
+                out.println("Failures of " + operation.getEndpoint() + " by status: " + endpoint.getFailuresByStatus());
+            }
+        });
+    }
+
+    private void print(PrintStream out, String name, Histogram latencies, long failed, String statements,
+                       String rows) {
+        out.printf(ROW, name,
+                latencies.getTotalCount(),
+                failed,
+                String.format("%.1f", latencies.getTotalCount() / (duration.toMillis() / 1000.0)),
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()),
+                statements,
+                rows);
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            if (entry.getValue().getRequests() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().getName() + ".hgrm")))) {
+                // Recorded in microseconds, written in milliseconds
+                entry.getValue().getLatencies().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+}
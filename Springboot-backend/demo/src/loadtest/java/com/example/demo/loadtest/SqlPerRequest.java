@@ -0,0 +1,60 @@
+package com.example.demo.loadtest;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Statements and rows read per request by endpoint, from the sql.statements and sql.rows summaries the
+// application publishes, counted from the last mark() so the warmup is left out
+class SqlPerRequest {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, double[]> baseline = new HashMap<>();
+
+    SqlPerRequest(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    void mark() {
+        baseline.clear();
+        for (Operation operation : Operation.values()) {
+            mark("sql.statements", operation, "");
+            mark("sql.rows", operation, "read");
+        }
+    }
+
+    double statements(Operation operation) {
+        return perRequest("sql.statements", operation, "");
+    }
+
+    double rowsRead(Operation operation) {
+        return perRequest("sql.rows", operation, "read");
+    }
+
+    private void mark(String name, Operation operation, String direction) {
+        DistributionSummary summary = summary(name, operation, direction);
+        if (summary != null) {
+            baseline.put(name + operation, new double[]{summary.count(), summary.totalAmount()});
+        }
+    }
+
+    private double perRequest(String name, Operation operation, String direction) {
+        DistributionSummary summary = summary(name, operation, direction);
+        if (summary == null) {
+            return 0.0;
+        }
+        double[] start = baseline.getOrDefault(name + operation, new double[2]);
+        double requests = summary.count() - start[0];
+        return requests == 0 ? 0.0 : (summary.totalAmount() - start[1]) / requests;
+    }
+
+    private DistributionSummary summary(String name, Operation operation, String direction) {
+        // Endpoints are "METHOD /route/{template}", the method and uri tags of the summary
+        String[] endpoint = operation.getEndpoint().split(" ", 2);
+        Search search = meterRegistry.find(name).tag("method", endpoint[0]).tag("uri", endpoint[1]);
+        return direction.isEmpty() ? search.summary() : search.tag("direction", direction).summary();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.loadtest.DataGenerator.Dataset;
+import com.example.demo.loadtest.DataGenerator.SeededCourse;
+import com.example.demo.loadtest.DataGenerator.SeededLesson;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Drives the operation mix over HTTP from a fixed number of clients. Clients are closed-loop: each waits for its
+// response before sending the next request, so under overload the latencies understate what an open stream of
+// users would see, and throughput is the number to compare.
+class Workload {
+
+    private static final int CATALOG_PAGE_SIZE = 20;
+
+    private final LoadTestOptions options;
+    private final Dataset dataset;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    Workload(LoadTestOptions options, Dataset dataset, int port) {
+        this.options = options;
+        this.dataset = dataset;
+        this.baseUrl = "http://localhost:" + port;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<Operation> weighted = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            int weight = options.getMix().getOrDefault(operation.getName(), operation.getDefaultWeight());
+            if (options.getLessons() == 0 && operation.getEndpoint().contains("{lessonId}")) {
+                weight = 0;
+            }
+            if (weight > 0) {
+                total += weight;
+                weighted.add(operation);
+                cumulative.add(total);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The request mix has no operation with a positive weight");
+        }
+        this.operations = weighted.toArray(new Operation[0]);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    Map<Operation, EndpointStats> run(Duration duration) throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(options.getClients());
+        for (int i = 0; i < options.getClients(); i++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    send(stats);
+                }
+            });
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            clients.shutdownNow();
+        }
+        return stats;
+    }
+
+    private void send(Map<Operation, EndpointStats> stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Operation operation = pick(random);
+        Long userId = dataset.getUsers().get(random.nextInt(dataset.getUsers().size()));
+        SeededCourse course = course(random);
+        // Progress and quiz operations need an enrollment, learners without one enroll first
+        if (operation.getEndpoint().startsWith("POST /users/{userId}/courses")) {
+            SeededCourse enrolled = enrolledCourse(userId, random);
+            if (enrolled == null) {
+                operation = Operation.ENROLL;
+            } else {
+                course = enrolled;
+            }
+        }
+        SeededLesson lesson = course.getLessons().isEmpty()
+                ? null
+                : course.getLessons().get(random.nextInt(course.getLessons().size()));
+
+        HttpRequest request = request(operation, userId, course, lesson, random);
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.get(operation).record(System.nanoTime() - start, status);
+
+        if (operation == Operation.ENROLL && status == 200) {
+            dataset.getEnrollments().get(userId).add(course);
+        }
+        if (!options.getThinkTime().isZero()) {
+            try {
+                Thread.sleep(options.getThinkTime().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation, Long userId, SeededCourse course, SeededLesson lesson,
+                                ThreadLocalRandom random) {
+        String users = "/users/" + userId;
+        String courses = "/courses/" + course.getId();
+        return switch (operation) {
+            case BROWSE_CATALOG -> get("/courses/catalog?size=" + CATALOG_PAGE_SIZE + "&page="
+                    + random.nextInt(Math.max(1, dataset.getCourses().size() / CATALOG_PAGE_SIZE)));
+            case VIEW_COURSE -> get(courses);
+            case VIEW_LESSON -> get(courses + "/lessons/" + lesson.getId());
+            case TAKE_LESSON_QUIZ -> get("/courses/lessons/" + lesson.getId() + "/quiz/questions");
+            case DASHBOARD -> get(users + "/dashboard");
+            case ENROLLED_COURSES -> get(users + "/enrolled-courses");
+            case ENROLL -> post(users + "/enroll/" + course.getId(), null);
+            case COMPLETE_LESSON -> post(users + courses + "/lessons/" + lesson.getId() + "/complete", null);
+            case SUBMIT_LESSON_QUIZ -> post(users + courses + "/lessons/" + lesson.getId() + "/quiz",
+                    lesson.getAnswers());
+            case SUBMIT_INTRO_QUIZ -> post(users + courses + "/intro-quiz",
+                    "{\"questionSummaries\":" + course.getIntroAnswers() + "}");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (json == null) {
+            return builder.POST(HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    // Popular courses get most of the traffic
+    private SeededCourse course(ThreadLocalRandom random) {
+        List<SeededCourse> courses = dataset.getCourses();
+        int index = (int) (courses.size() * Math.pow(random.nextDouble(), options.getPopularitySkew()));
+        return courses.get(Math.min(index, courses.size() - 1));
+    }
+
+    private SeededCourse enrolledCourse(Long userId, ThreadLocalRandom random) {
+        Set<SeededCourse> enrolled = dataset.getEnrollments().get(userId);
+        SeededCourse[] courses = enrolled.toArray(new SeededCourse[0]);
+        return courses.length == 0 ? null : courses[random.nextInt(courses.length)];
+    }
+}
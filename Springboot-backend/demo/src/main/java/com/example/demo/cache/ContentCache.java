@@ -0,0 +1,29 @@
+package com.example.demo.cache;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Read-through cache for course content snapshots. Values must not be mutated by callers.
+// The default bean is LocalContentCache; a distributed implementation can replace it.
+public interface ContentCache {
+
+    // Course snapshots keyed by course id; lessons and course quizzes are served from these
+    String COURSE = "course";
+    // Lesson quiz snapshots keyed by lesson id
+    String LESSON_QUIZ = "lessonQuiz";
+    // Catalog summaries and their version, under a single key
+    String CATALOG = "catalog";
+    // Quizzes rendered for learners (RenderedQuiz) keyed by quiz id
+    String QUIZ_QUESTIONS = "quizQuestions";
+    // A course's lesson ids in ascending order (long[]) keyed by course id, the ordinals of progress bitmaps
+    String LESSON_ORDINALS = "lessonOrdinals";
+
+    // Returns the cached value, or runs the loader and caches its result when it is not null
+    <T> T get(String region, Object key, Supplier<T> loader);
+
+    void evict(String region, Object key);
+
+    void evictAll();
+
+    Map<String, ContentCacheStats> stats();
+}
@@ -0,0 +1,14 @@
+package com.example.demo.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ContentCacheStats {
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRatio;
+}
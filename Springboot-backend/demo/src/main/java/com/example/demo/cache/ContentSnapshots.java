@@ -0,0 +1,79 @@
+package com.example.demo.cache;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.entity.Question;
+import com.example.demo.entity.Quiz;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Copies loaded entities into plain objects that are safe to share between requests.
+// Per-user data (progress, quiz attempts) is left out because it changes with every submission.
+public final class ContentSnapshots {
+
+    private ContentSnapshots() {
+    }
+
+    public static Course copyCourse(Course course) {
+        Course copy = new Course();
+        copy.setId(course.getId());
+        copy.setName(course.getName());
+        copy.setDescription(course.getDescription());
+        copy.setImageUrl(course.getImageUrl());
+        copy.setLessons(copyLessons(course.getLessons()));
+        copy.setIntroductoryQuiz(copyQuiz(course.getIntroductoryQuiz()));
+        copy.setFinalQuiz(copyQuiz(course.getFinalQuiz()));
+        copy.setProgressList(List.of());
+        return copy;
+    }
+
+    public static List<Lesson> copyLessons(List<Lesson> lessons) {
+        if (lessons == null) {
+            return null;
+        }
+        List<Lesson> copies = new ArrayList<>(lessons.size());
+        for (Lesson lesson : lessons) {
+            Lesson copy = new Lesson();
+            copy.setId(lesson.getId());
+            copy.setName(lesson.getName());
+            copy.setDescription(lesson.getDescription());
+            copy.setYoutubeVideoLink(lesson.getYoutubeVideoLink());
+            copy.setDifficultyLevel(lesson.getDifficultyLevel());
+            copy.setQuiz(copyQuiz(lesson.getQuiz()));
+            copies.add(copy);
+        }
+        return List.copyOf(copies);
+    }
+
+    public static Quiz copyQuiz(Quiz quiz) {
+        if (quiz == null) {
+            return null;
+        }
+        Quiz copy = new Quiz();
+        copy.setId(quiz.getId());
+        copy.setName(quiz.getName());
+        copy.setQuizSummaries(List.of());
+        if (quiz.getQuestions() != null) {
+            List<Question> questions = new ArrayList<>(quiz.getQuestions().size());
+            for (Question question : quiz.getQuestions()) {
+                Question questionCopy = new Question();
+                questionCopy.setId(question.getId());
+                questionCopy.setName(question.getName());
+                if (question.getOptions() != null) {
+                    List<Question.Option> options = new ArrayList<>(question.getOptions().size());
+                    for (Question.Option option : question.getOptions()) {
+                        Question.Option optionCopy = new Question.Option();
+                        optionCopy.setText(option.getText());
+                        optionCopy.setCorrect(option.isCorrect());
+                        options.add(optionCopy);
+                    }
+                    questionCopy.setOptions(List.copyOf(options));
+                }
+                questions.add(questionCopy);
+            }
+            copy.setQuestions(List.copyOf(questions));
+        }
+        return copy;
+    }
+}
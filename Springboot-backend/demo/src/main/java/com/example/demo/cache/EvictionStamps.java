@@ -0,0 +1,48 @@
+package com.example.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Guards caches whose values are loaded outside the cache lock. Every eviction bumps a counter for the key's
+// stripe before invalidating; a loaded value is stored only if its stripe was not bumped since the load started.
+// Otherwise a load that read before a write committed could store its old value after the write's eviction.
+// Keys sharing a stripe only cost an occasional uncached load.
+public class EvictionStamps {
+
+    private static final int STRIPES = 64;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    // Taken before loading
+    public long stamp(Object key) {
+        return stamps.get(stripe(key));
+    }
+
+    public <K, V> void evict(Cache<K, V> cache, K key) {
+        stamps.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+    }
+
+    public <K, V> void evictAll(Cache<K, V> cache, Iterable<? extends K> keys) {
+        keys.forEach(key -> stamps.incrementAndGet(stripe(key)));
+        cache.invalidateAll(keys);
+    }
+
+    public <K, V> void evictAll(Cache<K, V> cache) {
+        for (int i = 0; i < STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    // Checked under the entry's lock, which an eviction's invalidate also takes, so an eviction bumped after the
+    // check still removes the value
+    public <K, V> void putIfNotEvicted(Cache<K, V> cache, K key, V value, long stamp) {
+        cache.asMap().compute(key, (k, current) -> stamps.get(stripe(k)) == stamp ? value : current);
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+}
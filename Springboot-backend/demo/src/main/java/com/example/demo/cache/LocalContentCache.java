@@ -0,0 +1,85 @@
+package com.example.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Component
+public class LocalContentCache implements ContentCache {
+
+    private static final List<String> REGIONS = List.of(COURSE, LESSON_QUIZ, CATALOG, QUIZ_QUESTIONS, LESSON_ORDINALS);
+
+    private final Map<String, Cache<Object, Object>> regions = new LinkedHashMap<>();
+    private final Map<String, EvictionStamps> evictions = new LinkedHashMap<>();
+
+    public LocalContentCache(
+            @Value("${content-cache.maximum-size:1000}") long maximumSize,
+            @Value("${content-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        for (String region : REGIONS) {
+            regions.put(region, Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(expireAfterWrite)
+                    .recordStats()
+                    .build());
+            evictions.put(region, new EvictionStamps());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String region, Object key, Supplier<T> loader) {
+        Cache<Object, Object> cache = region(region);
+        Object value = cache.getIfPresent(key);
+        if (value == null) {
+            // Loaded outside the cache lock so a slow query does not block other keys; a value loaded while
+            // the key was evicted is returned but not cached
+            long stamp = evictions.get(region).stamp(key);
+            value = loader.get();
+            if (value != null) {
+                evictions.get(region).putIfNotEvicted(cache, key, value, stamp);
+            }
+        }
+        return (T) value;
+    }
+
+    @Override
+    public void evict(String region, Object key) {
+        evictions.get(region).evict(region(region), key);
+    }
+
+    @Override
+    public void evictAll() {
+        regions.forEach((name, cache) -> evictions.get(name).evictAll(cache));
+    }
+
+    @Override
+    public Map<String, ContentCacheStats> stats() {
+        Map<String, ContentCacheStats> stats = new LinkedHashMap<>();
+        regions.forEach((name, cache) -> {
+            CacheStats cacheStats = cache.stats();
+            stats.put(name, new ContentCacheStats(
+                    cache.estimatedSize(),
+                    cacheStats.hitCount(),
+                    cacheStats.missCount(),
+                    cacheStats.evictionCount(),
+                    cacheStats.hitRate()));
+        });
+        return stats;
+    }
+
+    private Cache<Object, Object> region(String region) {
+        Cache<Object, Object> cache = regions.get(region);
+        if (cache == null) {
+            throw new IllegalArgumentException("Unknown content cache region: " + region);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+public class SecondLevelCacheMonitor {
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Per-region counters from Hibernate statistics, including the query cache
+    public Map<String, SecondLevelCacheStats> stats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, SecondLevelCacheStats> stats = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = QUERY_RESULTS_REGION.equals(region)
+                    ? statistics.getQueryRegionStatistics(region)
+                    : statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics != null) {
+                stats.put(region, toStats(regionStatistics));
+            }
+        }
+        return stats;
+    }
+
+    private SecondLevelCacheStats toStats(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        long lookups = hits + misses;
+        return new SecondLevelCacheStats(hits, misses, region.getPutCount(), lookups == 0 ? 0.0 : (double) hits / lookups);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SecondLevelCacheStats {
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRatio;
+}
@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Both pools connect with the spring.datasource settings. Spring Boot only creates its own DataSource when there is
+// none, so the main pool is declared here too, bound to spring.datasource.hikari.* as Boot would bind it.
+// As beans, both are closed on shutdown and get hikaricp.* metrics, tagged with their pool name.
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (properties.getName() != null) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    // Reserves id blocks for IdBlocks, sized by id-blocks.hikari.*
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("id-blocks.hikari")
+    public HikariDataSource idBlocksDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("id-blocks");
+        return dataSource;
+    }
+}
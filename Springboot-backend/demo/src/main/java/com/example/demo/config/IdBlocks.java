@@ -0,0 +1,73 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out ids from blocks reserved in the id_generator table. Blocks are reserved on a small pool of their own
+// (idBlocksDataSource, see DataSourceConfig): Hibernate's table generator takes a second connection from the main
+// pool while the request still holds its first, and once every pooled connection belongs to a request waiting for
+// an id, nobody can get one.
+//
+// Requires a single application instance. Ids are unique across instances, but each instance hands out its own
+// block, so with two instances a later quiz attempt can get a lower id than an earlier one; attempt history and
+// stats (QuizSummaryRepository) take the highest id as the latest attempt. The submission queues and statuses
+// (QuizSubmissionIngestor) and the content cache eviction (LocalContentCache) are per instance as well.
+@Component
+public class IdBlocks {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public IdBlocks(@Qualifier("idBlocksDataSource") DataSource dataSource) {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    public long next(String name, int blockSize) {
+        return blocks.computeIfAbsent(name, Block::new).next(blockSize);
+    }
+
+    // Rows hold the next id nobody has reserved yet
+    private long reserve(String name, int blockSize) {
+        return transactionTemplate.execute(tx -> {
+            Long first = jdbcTemplate.queryForObject(
+                    "select next_val from id_generator where generator_name = ? for update", Long.class, name);
+            jdbcTemplate.update("update id_generator set next_val = ? where generator_name = ?", first + blockSize, name);
+            return first;
+        });
+    }
+
+    // A lock rather than synchronized: a virtual thread blocked on JDBC inside synchronized pins its carrier
+    private class Block {
+        private final String name;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;
+        private long end;
+
+        Block(String name) {
+            this.name = name;
+        }
+
+        long next(int blockSize) {
+            lock.lock();
+            try {
+                if (next == end) {
+                    next = reserve(name, blockSize);
+                    end = next + blockSize;
+                }
+                return next++;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Tables that moved from IDENTITY to pooled table ids keep their existing rows, so the generator row
+// must start past the highest id already used. Runs after the migrations and before the web server starts,
+// and before IdBlocks reserves its first block.
+@Slf4j
+@Component
+public class IdGeneratorAlignment implements SmartInitializingSingleton {
+
+    // Generator name -> table whose ids it hands out
+    private static final Map<String, String> GENERATORS = Map.of(
+            "quiz_summary", "quiz_summary",
+            "progress", "progress");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        GENERATORS.forEach((generator, table) -> {
+            jdbcTemplate.update(
+                    "insert into id_generator (generator_name, next_val) select ?, 1 from dual " +
+                    "where not exists (select 1 from id_generator where generator_name = ?)",
+                    generator, generator);
+            int updated = jdbcTemplate.update(
+                    "update id_generator set next_val = (select coalesce(max(id), 0) from " + table + ") + 1 " +
+                    "where generator_name = ? and next_val <= (select coalesce(max(id), 0) from " + table + ")",
+                    generator);
+            if (updated > 0) {
+                log.info("Moved id generator {} past existing {} rows", generator, table);
+            }
+        });
+    }
+}
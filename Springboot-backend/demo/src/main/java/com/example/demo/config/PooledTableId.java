@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Id handed out from blocks reserved in the id_generator table, so inserts can be batched (IDENTITY columns can't)
+@IdGeneratorType(PooledTableIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledTableId {
+
+    // generator_name of the id_generator row
+    String value();
+
+    int blockSize() default 50;
+}
@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.lang.reflect.Member;
+
+// Created by Hibernate through Spring's bean container (hibernate.cdi.extensions=true), one per annotated id
+public class PooledTableIdGenerator implements IdentifierGenerator, AnnotationBasedGenerator<PooledTableId> {
+
+    @Autowired
+    private IdBlocks idBlocks;
+
+    private String name;
+    private int blockSize;
+
+    @Override
+    public void initialize(PooledTableId annotation, Member member, GeneratorCreationContext context) {
+        name = annotation.value();
+        blockSize = annotation.blockSize();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return idBlocks.next(name, blockSize);
+    }
+}
@@ -19,7 +19,7 @@ public class WebConfig {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/**")
                         .allowedOrigins("http://localhost:3000")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
                         .allowCredentials(true);
             }
@@ -29,7 +29,10 @@ public class WebConfig {
                 MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
                 converter.setSupportedMediaTypes(List.of(
                         org.springframework.http.MediaType.APPLICATION_JSON,
-                        org.springframework.http.MediaType.APPLICATION_JSON_UTF8
+                        org.springframework.http.MediaType.APPLICATION_JSON_UTF8,
+                        // Course patches, see CourseController
+                        new org.springframework.http.MediaType("application", "merge-patch+json"),
+                        new org.springframework.http.MediaType("application", "json-patch+json")
                 ));
                 converters.add(converter);
             }
@@ -0,0 +1,38 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.AnalyticsRebuildStatus;
+import com.example.demo.dto.QuizItemAnalysis;
+import com.example.demo.service.analytics.AnalyticsRebuild;
+import com.example.demo.service.analytics.QuestionAnalytics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/analytics")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AnalyticsController {
+
+    @Autowired
+    private QuestionAnalytics questionAnalytics;
+
+    @Autowired
+    private AnalyticsRebuild analyticsRebuild;
+
+    // Percent correct, option distribution and discrimination index per question
+    @GetMapping("/quizzes/{quizId}")
+    public QuizItemAnalysis getQuizAnalysis(@PathVariable Long quizId) {
+        return questionAnalytics.analyze(quizId);
+    }
+
+    // Recomputes the rollup from every recorded answer, for one quiz or all of them when quizId is left out
+    @PostMapping("/rebuild")
+    public ResponseEntity<AnalyticsRebuildStatus> rebuild(@RequestParam(required = false) Long quizId) {
+        return ResponseEntity.accepted().body(analyticsRebuild.start(quizId));
+    }
+
+    @GetMapping("/rebuild")
+    public AnalyticsRebuildStatus getRebuildStatus() {
+        return analyticsRebuild.getStatus();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.controller;
+
+import com.example.demo.cache.ContentCache;
+import com.example.demo.cache.ContentCacheStats;
+import com.example.demo.cache.SecondLevelCacheMonitor;
+import com.example.demo.cache.SecondLevelCacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/cache")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CacheController {
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private SecondLevelCacheMonitor secondLevelCacheMonitor;
+
+    @GetMapping("/stats")
+    public Map<String, ContentCacheStats> getStats() {
+        return contentCache.stats();
+    }
+
+    @GetMapping("/second-level/stats")
+    public Map<String, SecondLevelCacheStats> getSecondLevelStats() {
+        return secondLevelCacheMonitor.stats();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> clear() {
+        contentCache.evictAll();
+        return ResponseEntity.ok().build();
+    }
+}
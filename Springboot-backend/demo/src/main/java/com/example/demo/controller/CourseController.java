@@ -1,16 +1,30 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ContentSnapshots;
+import com.example.demo.dto.CourseImportResult;
+import com.example.demo.dto.CoursePage;
+import com.example.demo.dto.CourseSummary;
+import com.example.demo.dto.RenderedQuiz;
 import com.example.demo.entity.Course;
 import com.example.demo.entity.Lesson;
 import com.example.demo.entity.Quiz;
 import com.example.demo.entity.User;
 import com.example.demo.exception.UnauthorizedException;
 import com.example.demo.service.CourseService;
+import com.example.demo.service.transfer.CourseImporter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +36,12 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private CourseImporter courseImporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/add")
     public Course addCourse(@RequestBody Course course) {
         
@@ -33,6 +53,71 @@ public class CourseController {
         return courseService.getAllCourses();
     }
 
+    @GetMapping("/page")
+    public CoursePage getCoursesAfter(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return courseService.getCoursesAfter(after, limit);
+    }
+
+    // One course JSON document per line, written as the catalog is read
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCourses() {
+        StreamingResponseBody body = out -> courseService.forEachCourse(course -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(course));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Course content only (no progress or quiz attempts) as NDJSON, in the format POST /courses/import reads
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCourses() {
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.setRootValueSeparator(null);
+            courseService.forEachCourseContent(course -> {
+                try {
+                    generator.writeObject(ContentSnapshots.copyCourse(course));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // A JSON array or NDJSON stream of courses, read and written in groups rather than held in memory
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public CourseImportResult importCourses(InputStream body) {
+        return courseImporter.importCourses(body);
+    }
+
+    @GetMapping("/summaries")
+    public List<CourseSummary> getCourseSummaries() {
+        return courseService.getCourseSummaries();
+    }
+
+    @GetMapping("/catalog")
+    public List<Course> getCoursePage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return courseService.getCoursePage(page, size);
+    }
+
+    // A shared content snapshot: progressList and each quiz's quizSummaries are always empty, as are they in the
+    // quiz and lesson reads below. Progress and quiz attempts are read per user under /users/{userId}.
     @GetMapping("/{courseId}")
     public Optional<Course> getCourseDetails(@PathVariable Long courseId) {
         return courseService.getCourseDetails(courseId);
@@ -76,6 +161,22 @@ public class CourseController {
         return courseService.getFinalQuiz(courseId);
     }
 
+    // Questions and option texts only, for taking the quiz; the endpoints above still include the answers
+    @GetMapping("/{courseId}/introductory-quiz/questions")
+    public ResponseEntity<byte[]> getIntroductoryQuizQuestions(@PathVariable Long courseId) {
+        return quizResponse(courseService.getIntroductoryQuizQuestions(courseId));
+    }
+
+    @GetMapping("/{courseId}/final-quiz/questions")
+    public ResponseEntity<byte[]> getFinalQuizQuestions(@PathVariable Long courseId) {
+        return quizResponse(courseService.getFinalQuizQuestions(courseId));
+    }
+
+    @GetMapping("/lessons/{lessonId}/quiz/questions")
+    public ResponseEntity<byte[]> getLessonQuizQuestions(@PathVariable Long lessonId) {
+        return quizResponse(courseService.getLessonQuizQuestions(lessonId));
+    }
+
     @GetMapping("/{courseId}/lessons")
     public List<Lesson> getLessons(@PathVariable Long courseId) {
         return courseService.getLessons(courseId);
@@ -96,20 +197,44 @@ public class CourseController {
         return courseService.getCompletedLessons(userId, courseId);
     }
 
+    @GetMapping("/{courseId}/users/{userId}/next-lesson")
+    public Optional<Lesson> getNextIncompleteLesson(@PathVariable Long courseId, @PathVariable Long userId) {
+        return courseService.getNextIncompleteLesson(userId, courseId);
+    }
+
     @PutMapping("/{courseId}")
     public Course updateCourse(@PathVariable Long courseId, @RequestBody Course course) {
         return courseService.updateCourse(courseId, course);
     }
 
+    // Lessons and questions are matched by id and only what changed is written; see CourseEditor
+    @PatchMapping(value = "/{courseId}", consumes = "application/merge-patch+json")
+    public Course mergePatchCourse(@PathVariable Long courseId, @RequestBody JsonNode patch) {
+        return courseService.mergePatchCourse(courseId, patch);
+    }
+
+    @PatchMapping(value = "/{courseId}", consumes = "application/json-patch+json")
+    public Course jsonPatchCourse(@PathVariable Long courseId, @RequestBody JsonNode operations) {
+        return courseService.jsonPatchCourse(courseId, operations);
+    }
+
+    // The course disappears at once; its rows are purged in the background, see GET /admin/course-purges/{courseId}
     @DeleteMapping("/{courseId}")
     public ResponseEntity<?> deleteCourse(@PathVariable Long courseId) {
         try {
-            courseService.deleteCourse(courseId);
-            return ResponseEntity.ok().build();
+            return ResponseEntity.accepted().body(courseService.deleteCourse(courseId));
         } catch (ResponseStatusException e) {
             return ResponseEntity
                 .status(e.getStatusCode())
                 .body("");
         }
     }
-}
\ No newline at end of file
+
+    // The JSON is written as cached; Spring answers 304 Not Modified when If-None-Match matches the ETag
+    private ResponseEntity<byte[]> quizResponse(RenderedQuiz quiz) {
+        return ResponseEntity.ok()
+                .eTag(quiz.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(quiz.getJson());
+    }
+}
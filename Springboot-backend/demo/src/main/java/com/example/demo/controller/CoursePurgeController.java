@@ -0,0 +1,27 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.CoursePurge;
+import com.example.demo.service.purge.CoursePurger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/course-purges")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CoursePurgeController {
+
+    @Autowired
+    private CoursePurger coursePurger;
+
+    // State, current phase and rows deleted so far for a deleted course
+    @GetMapping("/{courseId}")
+    public CoursePurge getPurge(@PathVariable Long courseId) {
+        return coursePurger.getStatus(courseId);
+    }
+
+    @PostMapping("/{courseId}/retry")
+    public ResponseEntity<CoursePurge> retry(@PathVariable Long courseId) {
+        return ResponseEntity.accepted().body(coursePurger.retry(courseId));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.GradeResult;
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.example.demo.service.grading.GradingEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/quizzes")
+@CrossOrigin(origins = "http://localhost:3000")
+public class GradingController {
+
+    @Autowired
+    private GradingEngine gradingEngine;
+
+    // Grades many answer sets for one quiz without storing anything; results are in request order
+    @PostMapping("/{quizId}/grade")
+    public List<GradeResult> gradeAll(@PathVariable Long quizId, @RequestBody List<List<QuestionSummary>> submissions) {
+        return gradingEngine.gradeAll(quizId, submissions);
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CourseDashboard;
+import com.example.demo.dto.CourseProgress;
+import com.example.demo.dto.QuizAttemptPage;
+import com.example.demo.dto.QuizAttemptStats;
+import com.example.demo.dto.QuizSubmissionStatus;
+import com.example.demo.dto.RecommendationInput;
 import com.example.demo.entity.Course;
 import com.example.demo.entity.Progress;
 import com.example.demo.entity.QuizSummary;
 import com.example.demo.entity.User;
 import com.example.demo.entity.QuizSummary.QuestionSummary;
 import com.example.demo.service.UserService;
+import com.example.demo.service.ingestion.IdempotentSubmissions;
+import com.example.demo.service.ingestion.QuizSubmissionIngestor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +37,12 @@ public class UserController {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private QuizSubmissionIngestor quizSubmissionIngestor;
+
+    @Autowired
+    private IdempotentSubmissions idempotentSubmissions;
+
     @PostMapping("/register")
     public User registerUser(@RequestBody User user) {
         return userService.registerUser(user);
@@ -59,6 +73,21 @@ public class UserController {
         return userService.getQuizResults(userId, quizId);
     }
 
+    // Scores only, newest first; pass nextCursor as "before" to page back
+    @GetMapping("/{userId}/quiz/{quizId}/attempts")
+    public QuizAttemptPage getQuizAttempts(
+            @PathVariable Long userId,
+            @PathVariable Long quizId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int limit) {
+        return userService.getQuizAttempts(userId, quizId, before, limit);
+    }
+
+    @GetMapping("/{userId}/quiz/{quizId}/stats")
+    public QuizAttemptStats getQuizAttemptStats(@PathVariable Long userId, @PathVariable Long quizId) {
+        return userService.getQuizAttemptStats(userId, quizId);
+    }
+
     @GetMapping("/{userId}/enrolled-courses")
     public List<Course> getEnrolledCourses(@PathVariable Long userId) {
         return userService.getEnrolledCourses(userId);
@@ -71,13 +100,36 @@ public class UserController {
 
     @GetMapping("/{userId}/in-progress-courses")
     public List<Course> getInProgressCourses(@PathVariable Long userId) {
-        try {
-            List<Course> courses = userService.getInProgressCourses(userId);
-            return courses;
-        } catch (Exception e) {
-            
-            return null;
-        }
+        return userService.getInProgressCourses(userId);
+    }
+
+    @GetMapping("/{userId}/dashboard")
+    public CourseDashboard getDashboard(@PathVariable Long userId) {
+        return userService.getDashboard(userId);
+    }
+
+    @GetMapping("/{userId}/progress")
+    public List<CourseProgress> getCourseProgress(@PathVariable Long userId) {
+        return userService.getCourseProgress(userId);
+    }
+
+    @GetMapping("/{userId}/courses/{courseId}/progress")
+    public CourseProgress getCourseProgress(@PathVariable Long userId, @PathVariable Long courseId) {
+        return userService.getCourseProgress(userId, courseId);
+    }
+
+    @GetMapping("/{userId}/recommendation-input")
+    public ResponseEntity<RecommendationInput> getRecommendationInput(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String catalogVersion) {
+        RecommendationInput input = userService.getRecommendationInput(userId, catalogVersion);
+        // Spring answers 304 Not Modified when If-None-Match matches this ETag
+        return ResponseEntity.ok().eTag(input.etag()).body(input);
+    }
+
+    @GetMapping("/{userId}/recommendations")
+    public List<Course> getRecommendations(@PathVariable Long userId, @RequestParam(defaultValue = "3") int limit) {
+        return userService.getRecommendations(userId, limit);
     }
 
     @GetMapping("/{userId}/recommended-courses")
@@ -99,6 +151,7 @@ public class UserController {
     public ResponseEntity<QuizSummary> submitIntroQuiz(
             @PathVariable Long userId,
             @PathVariable Long courseId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody Map<String, Object> payload) {
         try {
             @SuppressWarnings("unchecked")
@@ -106,8 +159,11 @@ public class UserController {
                 objectMapper.convertValue(payload.get("questionSummaries"), 
                     new TypeReference<List<QuestionSummary>>() {});
             
-            QuizSummary summary = userService.addIntroQuizSummary(userId, courseId, questionSummaries);
+            QuizSummary summary = idempotentSubmissions.submit(userId, idempotencyKey,
+                    () -> userService.addIntroQuizSummary(userId, courseId, questionSummaries));
             return new ResponseEntity<>(summary, HttpStatus.CREATED);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
                 "Invalid quiz submission: " + e.getMessage());
@@ -118,6 +174,7 @@ public class UserController {
     public ResponseEntity<QuizSummary> submitFinalQuiz(
         @PathVariable Long userId,
         @PathVariable Long courseId,
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
         @RequestBody Map<String, Object> payload) {
     try {
         @SuppressWarnings("unchecked")
@@ -125,8 +182,11 @@ public class UserController {
             objectMapper.convertValue(payload.get("questionSummaries"), 
                 new TypeReference<List<QuestionSummary>>() {});
         
-        QuizSummary summary = userService.addFinalQuizSummary(userId, courseId, questionSummaries);
+        QuizSummary summary = idempotentSubmissions.submit(userId, idempotencyKey,
+                () -> userService.addFinalQuizSummary(userId, courseId, questionSummaries));
         return new ResponseEntity<>(summary, HttpStatus.CREATED);
+    } catch (ResponseStatusException e) {
+        throw e;
     } catch (Exception e) {
         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
             "Invalid quiz submission: " + e.getMessage());
@@ -138,11 +198,64 @@ public class UserController {
             @PathVariable Long userId,
             @PathVariable Long courseId,
             @PathVariable Long lessonId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody List<QuestionSummary> questionSummaries) {
-        QuizSummary summary = userService.addLessonQuizSummary(userId, courseId, lessonId, questionSummaries);
+        QuizSummary summary = idempotentSubmissions.submit(userId, idempotencyKey,
+                () -> userService.addLessonQuizSummary(userId, courseId, lessonId, questionSummaries));
         return new ResponseEntity<>(summary, HttpStatus.CREATED);
     }
 
+    // Queued variants of the three submit endpoints, selected with ?async=true.
+    // They answer 202 with a submission id to poll, or 429 when the queue is full.
+    @PostMapping(value = "/{userId}/courses/{courseId}/intro-quiz", params = "async=true")
+    public ResponseEntity<QuizSubmissionStatus> queueIntroQuiz(
+            @PathVariable Long userId,
+            @PathVariable Long courseId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody Map<String, Object> payload) {
+        QuizSubmissionStatus status = quizSubmissionIngestor.submitIntroQuiz(
+                userId, courseId, idempotencyKey, readQuestionSummaries(payload));
+        return new ResponseEntity<>(status, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping(value = "/{userId}/courses/{courseId}/final-quiz", params = "async=true")
+    public ResponseEntity<QuizSubmissionStatus> queueFinalQuiz(
+            @PathVariable Long userId,
+            @PathVariable Long courseId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody Map<String, Object> payload) {
+        QuizSubmissionStatus status = quizSubmissionIngestor.submitFinalQuiz(
+                userId, courseId, idempotencyKey, readQuestionSummaries(payload));
+        return new ResponseEntity<>(status, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping(value = "/{userId}/courses/{courseId}/lessons/{lessonId}/quiz", params = "async=true")
+    public ResponseEntity<QuizSubmissionStatus> queueLessonQuiz(
+            @PathVariable Long userId,
+            @PathVariable Long courseId,
+            @PathVariable Long lessonId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody List<QuestionSummary> questionSummaries) {
+        QuizSubmissionStatus status = quizSubmissionIngestor.submitLessonQuiz(
+                userId, courseId, lessonId, idempotencyKey, questionSummaries);
+        return new ResponseEntity<>(status, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{userId}/quiz-submissions/{submissionId}")
+    public QuizSubmissionStatus getQuizSubmissionStatus(@PathVariable Long userId, @PathVariable String submissionId) {
+        return quizSubmissionIngestor.getStatus(userId, submissionId);
+    }
+
+    private List<QuestionSummary> readQuestionSummaries(Map<String, Object> payload) {
+        try {
+            return objectMapper.convertValue(payload.get("questionSummaries"),
+                    new TypeReference<List<QuestionSummary>>() {});
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Invalid quiz submission: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{userId}/courses/{courseId}/intro-quiz-summary/{quizSummaryId}")
     public ResponseEntity<QuizSummary> getIntroQuizSummary(
             @PathVariable Long userId,
@@ -195,6 +308,8 @@ public class UserController {
         try {
             Progress progress = userService.markCourseAsInProgress(userId, courseId);
             return ResponseEntity.ok(progress);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             throw new ResponseStatusException(
                 HttpStatus.INTERNAL_SERVER_ERROR, 
@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class AnalyticsRebuildStatus {
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    private State state;
+    // Null when every quiz is rebuilt
+    private Long quizId;
+    private long attemptsScanned;
+    private Instant startedAt;
+    private Instant finishedAt;
+    // Set when the rebuild failed
+    private String error;
+
+    public static AnalyticsRebuildStatus idle() {
+        return new AnalyticsRebuildStatus(State.IDLE, null, 0, null, null, null);
+    }
+
+    public static AnalyticsRebuildStatus running(Long quizId) {
+        return new AnalyticsRebuildStatus(State.RUNNING, quizId, 0, Instant.now(), null, null);
+    }
+
+    public AnalyticsRebuildStatus scanned(long attempts) {
+        return new AnalyticsRebuildStatus(state, quizId, attempts, startedAt, finishedAt, error);
+    }
+
+    public AnalyticsRebuildStatus completed() {
+        return new AnalyticsRebuildStatus(State.COMPLETED, quizId, attemptsScanned, startedAt, Instant.now(), null);
+    }
+
+    public AnalyticsRebuildStatus failed(String reason) {
+        return new AnalyticsRebuildStatus(State.FAILED, quizId, attemptsScanned, startedAt, Instant.now(), reason);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CatalogSnapshot {
+    // Content hash of the summaries, changes whenever a course is added, edited or removed
+    private String version;
+    private List<CourseSummary> courses;
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Course;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CourseDashboard {
+    private List<Course> enrolledCourses;
+    private List<Course> inProgressCourses;
+    private List<Course> completedCourses;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CourseImportResult {
+    private long courses;
+    private long lessons;
+    private long quizzes;
+    private long questions;
+    private long options;
+    private int transactions;
+    private long millis;
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Course;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CoursePage {
+    private List<Course> courses;
+    // Id to pass as "after" for the next page, null on the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class CourseProgress {
+    private Long courseId;
+    private int completedLessons;
+    private int totalLessons;
+    private Instant updatedAt;
+
+    public double getPercentComplete() {
+        return totalLessons == 0 ? 0.0 : (double) completedLessons / totalLessons * 100;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Progress;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CourseStatus {
+    private Long courseId;
+    private Progress.Status status;
+    // Whether the course is still in the user's enrolled courses
+    private boolean enrolled;
+}
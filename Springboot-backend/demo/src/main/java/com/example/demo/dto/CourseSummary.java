@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CourseSummary {
+    private Long id;
+    private String name;
+    private String description;
+    private String imageUrl;
+    private long lessonCount;
+}
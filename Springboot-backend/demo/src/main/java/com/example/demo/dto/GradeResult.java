@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class GradeResult {
+    // Percentage of the quiz's questions answered correctly, rounded down
+    private int score;
+    private int correctAnswers;
+    private int totalQuestions;
+    // Per submitted answer, in submission order
+    private boolean[] correct;
+}
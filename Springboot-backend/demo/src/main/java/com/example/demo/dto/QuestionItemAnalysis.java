@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class QuestionItemAnalysis {
+    private Long questionId;
+    // Answers recorded for the question, including ones with no option selected
+    private long answered;
+    private long unanswered;
+    private long correct;
+    private double percentCorrect;
+    // Point-biserial correlation between answering correctly and the attempt's score, from -1 to 1;
+    // null when everyone or no one answered correctly, or all scores are equal
+    private Double discriminationIndex;
+    // Times each option was selected, by option index
+    private List<Long> optionSelections;
+}
@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class QuizAttempt {
+    // The quiz summary id, increasing with each submission on a single instance (see IdBlocks)
+    private Long id;
+    private int score;
+}
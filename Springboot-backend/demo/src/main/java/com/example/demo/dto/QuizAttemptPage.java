@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class QuizAttemptPage {
+    // Newest first
+    private List<QuizAttempt> attempts;
+    // Id to pass as "before" for the next page, null on the last page
+    private Long nextCursor;
+}
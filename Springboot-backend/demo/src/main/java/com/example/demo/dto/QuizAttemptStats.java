@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class QuizAttemptStats {
+    private long attempts;
+    // Scores are null when there are no attempts
+    private Integer bestScore;
+    private Integer latestScore;
+    private Double averageScore;
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class QuizItemAnalysis {
+    private Long quizId;
+    private List<QuestionItemAnalysis> questions;
+    // Answers to a question of another quiz, or with an option index the question does not have
+    private long invalidAnswers;
+}
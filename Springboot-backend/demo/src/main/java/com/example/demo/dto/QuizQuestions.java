@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// What a learner needs to take a quiz: no correct answers and no attempts
+@Getter
+@AllArgsConstructor
+public class QuizQuestions {
+    private Long id;
+    private String name;
+    private List<Question> questions;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Question {
+        private Long id;
+        private String name;
+        private List<Option> options;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Option {
+        private String text;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class QuizSubmissionStatus {
+
+    public enum State {
+        QUEUED, COMMITTED, FAILED
+    }
+
+    private String id;
+    private Long userId;
+    private State state;
+    // Set once the submission is committed
+    private Long quizSummaryId;
+    private Integer score;
+    // Set when the submission failed
+    private String error;
+
+    public static QuizSubmissionStatus queued(String id, Long userId) {
+        return new QuizSubmissionStatus(id, userId, State.QUEUED, null, null, null);
+    }
+
+    public QuizSubmissionStatus committed(Long quizSummaryId, int score) {
+        return new QuizSubmissionStatus(id, userId, State.COMMITTED, quizSummaryId, score, null);
+    }
+
+    public QuizSubmissionStatus failed(String error) {
+        return new QuizSubmissionStatus(id, userId, State.FAILED, null, null, error);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class RecommendationInput {
+    private List<String> interests;
+    private List<Long> enrolledCourseIds;
+    private List<Long> inProgressCourseIds;
+    private List<Long> completedCourseIds;
+    private String catalogVersion;
+    // Null when the caller already holds catalogVersion
+    private List<CourseSummary> catalog;
+
+    public String etag() {
+        String content = interests + "|" + enrolledCourseIds + "|" + inProgressCourseIds + "|"
+                + completedCourseIds + "|" + catalogVersion + "|" + (catalog != null);
+        return "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
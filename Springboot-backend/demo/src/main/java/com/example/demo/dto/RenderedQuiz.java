@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RenderedQuiz {
+    // QuizQuestions serialized once, served as is until the quiz changes
+    private byte[] json;
+    // Quoted content hash of the JSON, changes with every edit to the quiz
+    private String etag;
+}
@@ -3,15 +3,23 @@ package com.example.demo.entity;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.ArrayList;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course")
+// Deleted courses are left out of every load and query until CoursePurger removes their rows
+@SQLRestriction("deleted_at is null")
 @Getter
 @Setter
 public class Course {
@@ -23,7 +31,14 @@ public class Course {
     private String description;
     private String imageUrl;
 
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    // In creation order; the join table has no order of its own
     @OneToMany(cascade = CascadeType.ALL)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course.lessons")
     private List<Lesson> lessons;
 
     @OneToOne(cascade = CascadeType.ALL)
@@ -0,0 +1,51 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Progress of removing a deleted course's rows (CoursePurger)
+@Entity
+@Getter
+@Setter
+@Table(name = "course_purges", indexes = @Index(name = "idx_course_purges_state", columnList = "state"))
+public class CoursePurge {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    // In the order they run: rows referencing the course or its quizzes go before the content they reference
+    public enum Phase {
+        PROGRESS, ENROLLMENTS, QUIZ_ATTEMPTS, CONTENT
+    }
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private State state;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Phase phase;
+
+    @Column(name = "rows_deleted", nullable = false)
+    private long rowsDeleted;
+
+    @Column(name = "requested_at", nullable = false)
+    private Instant requestedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// A client-supplied Idempotency-Key and the quiz summary its first submission produced
+@Entity
+@Getter
+@Setter
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_quiz_summary", columnList = "quiz_summary_id"))
+public class IdempotencyKey {
+    // "<userId>:<key>", so clients only need keys unique per user
+    @Id
+    @Column(length = 100)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "quiz_summary_id")
+    private Long quizSummaryId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -1,6 +1,8 @@
 package com.example.demo.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.demo.config.PooledTableId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,15 +10,20 @@ import lombok.Setter;
 import java.util.HashSet;
 import java.util.Set;
 
+// Not in the second-level cache: progress is written on nearly every submission, so a cached copy would be
+// invalidated about as often as it is read, and writers must read it locked (ProgressStore) anyway
 @Entity
 @Getter
 @Setter
 @Table(name = "progress", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "course_id"})
+}, indexes = {
+    @Index(name = "idx_progress_user_status", columnList = "user_id, status, course_id")
 })
 public class Progress {
+    // Pooled table ids let Hibernate batch inserts, which IDENTITY columns prevent; IdGeneratorAlignment seeds the row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId("progress")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -52,9 +59,22 @@ public class Progress {
         }
     }
 
+    // Completed lessons as a bitset over lesson ordinals (the course's lesson ids in ascending order).
+    // Derived from completedLessons, which stays the source of truth; maintained by ProgressBitmaps.
+    // Null only on rows saved before the column existed. A blob holds 65535 bytes, one bit per lesson,
+    // so courses are not capped at the 2048 lessons the former varbinary(256) held.
+    @JsonIgnore
+    @Column(name = "completed_lesson_bits", columnDefinition = "blob")
+    private byte[] completedLessonBits = new byte[0];
+
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    // Concurrent writers that did not take the row lock fail instead of overwriting each other
+    @Version
+    @JsonIgnore
+    private long version;
+
     public enum Status {
         ENROLLED,
         IN_PROGRESS,
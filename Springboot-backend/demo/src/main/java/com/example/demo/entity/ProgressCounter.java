@@ -0,0 +1,37 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Denormalized lesson counts per Progress row, so progress listings read one narrow indexed table
+@Entity
+@Getter
+@Setter
+@Table(name = "progress_counters", indexes = {
+    @Index(name = "idx_progress_counters_user_course", columnList = "user_id, course_id"),
+    @Index(name = "idx_progress_counters_course", columnList = "course_id")
+})
+public class ProgressCounter {
+    // Same id as the Progress row it summarizes
+    @Id
+    @Column(name = "progress_id")
+    private Long progressId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "completed_lessons", nullable = false)
+    private int completedLessons;
+
+    @Column(name = "total_lessons", nullable = false)
+    private int totalLessons;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
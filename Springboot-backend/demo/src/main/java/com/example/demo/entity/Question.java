@@ -1,12 +1,16 @@
 package com.example.demo.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "question")
 @Getter
 @Setter
 public class Question {
@@ -16,7 +20,10 @@ public class Question {
 
     private String name;
 
+    // Answers, grading and analytics refer to an option by its position, so the position is stored with it
     @ElementCollection
+    @OrderColumn(name = "option_index")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "question.options")
     private List<Option> options;
 
     @ManyToOne
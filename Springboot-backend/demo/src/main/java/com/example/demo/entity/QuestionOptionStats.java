@@ -0,0 +1,57 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+// Rollup of quiz answers per question and selected option, written by QuestionAnalytics.
+// Score sums are over the attempts' total scores and feed the discrimination index.
+@Entity
+@Getter
+@Setter
+@IdClass(QuestionOptionStats.Key.class)
+@Table(name = "question_option_stats", indexes = {
+    @Index(name = "idx_question_option_stats_quiz", columnList = "quiz_id")
+})
+public class QuestionOptionStats {
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    // -1 counts answers that selected no option
+    @Id
+    @Column(name = "option_index")
+    private int optionIndex;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Column(nullable = false)
+    private long selections;
+
+    @Column(name = "correct_selections", nullable = false)
+    private long correctSelections;
+
+    @Column(name = "score_sum", nullable = false)
+    private long scoreSum;
+
+    @Column(name = "score_square_sum", nullable = false)
+    private long scoreSquareSum;
+
+    @Column(name = "correct_score_sum", nullable = false)
+    private long correctScoreSum;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long questionId;
+        private int optionIndex;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.entity;
 
+import com.example.demo.config.PooledTableId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,11 +10,16 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
+@Table(name = "quiz_summary", indexes = {
+    // Attempt history and stats read one user's attempts at one quiz, newest first, from the index alone
+    @Index(name = "idx_quiz_summary_attempts", columnList = "user_id, quiz_id, id, score")
+})
 @Getter
 @Setter
 public class QuizSummary {
+    // Pooled table ids let Hibernate batch inserts, which IDENTITY columns prevent; IdGeneratorAlignment seeds the row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId("quiz_summary")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
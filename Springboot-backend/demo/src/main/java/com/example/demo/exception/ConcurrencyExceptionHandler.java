@@ -0,0 +1,19 @@
+package com.example.demo.exception;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+
+// A write that lost a version check is a conflict the client can retry, not a server error
+@RestControllerAdvice
+public class ConcurrencyExceptionHandler {
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public void handleOptimisticLockingFailure(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.CONFLICT.value(), "The record was modified concurrently, retry the request");
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Reports every statement execution, its duration and the rows it read or changed to SqlAccounting.
+// Spring's DataSource unwrapping sees through DelegatingDataSource, so Hikari's pool metrics still bind.
+// Every connection, statement and result set is a reflective proxy, so each call, ResultSet.next() included,
+// pays for Method.invoke; sql-accounting.enabled=false turns the wrapping off.
+class CountingDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<SqlAccounting> sqlAccountingProvider;
+    private volatile SqlAccounting sqlAccounting;
+
+    CountingDataSource(DataSource target, ObjectProvider<SqlAccounting> sqlAccountingProvider) {
+        super(target);
+        this.sqlAccountingProvider = sqlAccountingProvider;
+    }
+
+    // Resolved on first use, so wrapping the DataSource does not create the metrics beans early
+    private SqlAccounting sqlAccounting() {
+        SqlAccounting accounting = sqlAccounting;
+        if (accounting == null) {
+            accounting = sqlAccountingProvider.getObject();
+            sqlAccounting = accounting;
+        }
+        return accounting;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = CountingDataSource.invoke(connection, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, new StatementHandler((Statement) result, sql));
+            }
+            if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, new StatementHandler((Statement) result, sql));
+            }
+            if (result instanceof Statement) {
+                return proxy(Statement.class, new StatementHandler((Statement) result, null));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        // Set for prepared statements, plain statements pass their SQL to execute
+        private final String preparedSql;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = CountingDataSource.invoke(statement, method, args);
+                return "getResultSet".equals(name) && result != null ? resultSet((ResultSet) result) : result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            long start = System.nanoTime();
+            Object result = CountingDataSource.invoke(statement, method, args);
+            sqlAccounting().executed(sql, System.nanoTime() - start, rowsWritten(result));
+            return result instanceof ResultSet ? resultSet((ResultSet) result) : result;
+        }
+
+        // Drivers report a batch entry whose count they do not know as SUCCESS_NO_INFO (-2), which counts as 0.
+        // MySQL does so for every entry of a batch rewritten into one statement (rewriteBatchedStatements=true),
+        // so rows written by batched inserts are under-reported.
+        private long rowsWritten(Object result) {
+            if (result instanceof Integer) {
+                return Math.max(0, (Integer) result);
+            }
+            if (result instanceof Long) {
+                return Math.max(0, (Long) result);
+            }
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(0, count);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(0, count);
+                }
+            }
+            return rows;
+        }
+
+        private ResultSet resultSet(ResultSet resultSet) {
+            return proxy(ResultSet.class, (proxy, method, args) -> {
+                Object result = CountingDataSource.invoke(resultSet, method, args);
+                if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                    sqlAccounting().rowRead();
+                }
+                return result;
+            });
+        }
+    }
+}
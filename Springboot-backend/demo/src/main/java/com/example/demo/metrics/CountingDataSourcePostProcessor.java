@@ -0,0 +1,30 @@
+package com.example.demo.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps the application's DataSource in a CountingDataSource. The pool IdBlocks reserves ids on is not counted.
+// sql-accounting.enabled=false leaves the DataSource unwrapped, so JDBC calls skip the proxies altogether.
+@Component
+@ConditionalOnProperty(name = "sql-accounting.enabled", havingValue = "true", matchIfMissing = true)
+public class CountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlAccounting> sqlAccounting;
+
+    public CountingDataSourcePostProcessor(ObjectProvider<SqlAccounting> sqlAccounting) {
+        this.sqlAccounting = sqlAccounting;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof CountingDataSource)
+                && !"idBlocksDataSource".equals(beanName)) {
+            return new CountingDataSource((DataSource) bean, sqlAccounting);
+        }
+        return bean;
+    }
+}
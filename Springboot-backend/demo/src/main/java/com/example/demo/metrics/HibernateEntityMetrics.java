@@ -0,0 +1,45 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Entity and collection load counts from Hibernate statistics (hibernate.generate_statistics). A fetch is a
+// lazy load of something not already in the session, so fetch counts climbing with traffic point at N+1 loading.
+@Component
+public class HibernateEntityMetrics implements MeterBinder {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String entity : statistics.getEntityNames()) {
+            String name = entity.substring(entity.lastIndexOf('.') + 1);
+            FunctionCounter.builder("hibernate.entity.loads", statistics, s -> s.getEntityStatistics(entity).getLoadCount())
+                    .description("Entities loaded from the database")
+                    .tag("entity", name)
+                    .register(registry);
+            FunctionCounter.builder("hibernate.entity.fetches", statistics, s -> s.getEntityStatistics(entity).getFetchCount())
+                    .description("Entities fetched by a separate select, lazily or by id")
+                    .tag("entity", name)
+                    .register(registry);
+        }
+        for (String role : statistics.getCollectionRoleNames()) {
+            String name = role.substring(role.lastIndexOf('.', role.lastIndexOf('.') - 1) + 1);
+            FunctionCounter.builder("hibernate.collection.fetches", statistics, s -> s.getCollectionStatistics(role).getFetchCount())
+                    .description("Collections initialized by a separate select")
+                    .tag("role", name)
+                    .register(registry);
+        }
+        FunctionCounter.builder("hibernate.statements.prepared", statistics, Statistics::getPrepareStatementCount)
+                .description("JDBC statements Hibernate prepared")
+                .register(registry);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Statements and rows per request, fed by CountingDataSource on the request thread and published per endpoint
+// by SqlAccountingFilter. Also logs a sample of slow statements from any thread, in place of show-sql.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sql-accounting.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlAccounting {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // A request running the same statement this often is reported as an N+1 pattern
+    @Value("${sql-accounting.repeated-statement-threshold:10}")
+    private int repeatedStatementThreshold;
+
+    @Value("${sql-accounting.slow-query-threshold:200ms}")
+    private Duration slowQueryThreshold;
+
+    // Share of slow statements that get logged, so a slow table does not flood the log under load
+    @Value("${sql-accounting.slow-query-sample-rate:1.0}")
+    private double slowQuerySampleRate;
+
+    private final ThreadLocal<RequestSql> current = new ThreadLocal<>();
+    // When each endpoint last logged an N+1 warning
+    private final Map<String, Long> lastRepeatWarning = new ConcurrentHashMap<>();
+
+    void begin() {
+        current.set(new RequestSql());
+    }
+
+    // Called with the route template, e.g. /users/{userId}/dashboard, or null when no handler matched
+    void end(String method, String uri) {
+        RequestSql sql = current.get();
+        current.remove();
+        if (sql == null || uri == null) {
+            return;
+        }
+        DistributionSummary.builder("sql.statements")
+                .description("JDBC statements executed per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(sql.statements);
+        DistributionSummary.builder("sql.rows")
+                .description("Rows read from result sets and rows changed per request")
+                .tags("method", method, "uri", uri, "direction", "read")
+                .register(meterRegistry)
+                .record(sql.rowsRead);
+        DistributionSummary.builder("sql.rows")
+                .description("Rows read from result sets and rows changed per request")
+                .tags("method", method, "uri", uri, "direction", "written")
+                .register(meterRegistry)
+                .record(sql.rowsWritten);
+
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (Map.Entry<String, Integer> entry : sql.executions.entrySet()) {
+            if (mostRepeated == null || entry.getValue() > mostRepeated.getValue()) {
+                mostRepeated = entry;
+            }
+        }
+        if (mostRepeated != null && mostRepeated.getValue() >= repeatedStatementThreshold) {
+            Counter.builder("sql.repeated.statements")
+                    .description("Requests that ran one statement at least sql-accounting.repeated-statement-threshold times")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            String endpoint = method + " " + uri;
+            long now = System.nanoTime();
+            Long last = lastRepeatWarning.get(endpoint);
+            if (last == null || now - last > TimeUnit.MINUTES.toNanos(1)) {
+                lastRepeatWarning.put(endpoint, now);
+                log.warn("Possible N+1 in {}: ran {} statements, the same one {} times: {}", endpoint, sql.statements,
+                        mostRepeated.getValue(), mostRepeated.getKey());
+            }
+        }
+    }
+
+    void executed(String sql, long elapsedNanos, long rowsWritten) {
+        RequestSql request = current.get();
+        if (request != null) {
+            request.statements++;
+            request.rowsWritten += rowsWritten;
+            if (sql != null) {
+                request.executions.merge(sql, 1, Integer::sum);
+            }
+        }
+        if (elapsedNanos >= slowQueryThreshold.toNanos()
+                && ThreadLocalRandom.current().nextDouble() < slowQuerySampleRate) {
+            log.warn("Slow statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sql);
+        }
+    }
+
+    void rowRead() {
+        RequestSql request = current.get();
+        if (request != null) {
+            request.rowsRead++;
+        }
+    }
+
+    private static class RequestSql {
+        private long statements;
+        private long rowsRead;
+        private long rowsWritten;
+        private final Map<String, Integer> executions = new HashMap<>();
+    }
+}
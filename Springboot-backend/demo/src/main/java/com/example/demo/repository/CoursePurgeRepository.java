@@ -0,0 +1,14 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CoursePurge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface CoursePurgeRepository extends JpaRepository<CoursePurge, Long> {
+
+    Optional<CoursePurge> findFirstByStateInOrderByRequestedAt(Collection<CoursePurge.State> states);
+}
@@ -1,9 +1,60 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.CourseSummary;
 import com.example.demo.entity.Course;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select new com.example.demo.dto.CourseSummary(c.id, c.name, c.description, c.imageUrl, count(l)) " +
+           "from Course c left join c.lessons l " +
+           "group by c.id, c.name, c.description, c.imageUrl order by c.id")
+    List<CourseSummary> findSummaries();
+
+    @Query("select c.id from Course c order by c.id")
+    List<Long> findIds(Pageable pageable);
+
+    @Query("select c.id from Course c where c.id > :after order by c.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    // Lessons are the only bag fetched here; the quizzes are single-valued joins.
+    // Cacheable content queries are invalidated by Hibernate when any table they read is written.
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select c from Course c " +
+           "left join fetch c.lessons l " +
+           "left join fetch l.quiz " +
+           "left join fetch c.introductoryQuiz " +
+           "left join fetch c.finalQuiz " +
+           "where c.id in :ids order by c.id")
+    List<Course> findWithLessonsAndQuizzesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Lesson ordinals used by progress bitmaps; ids only grow, so added lessons keep earlier ordinals.
+    // Cached per course in the content cache (ProgressBitmaps) rather than the query cache, which every
+    // course or lesson write would clear.
+    @Query("select l.id from Course c join c.lessons l where c.id = :courseId order by l.id")
+    List<Long> findLessonIdsInOrder(@Param("courseId") Long courseId);
+
+    @Query("select c.id from Course c join c.lessons l where l.id = :lessonId")
+    List<Long> findIdsByLessonId(@Param("lessonId") Long lessonId);
+
+    @Query("select c from Course c left join fetch c.progressList where c in :courses")
+    List<Course> fetchProgressList(@Param("courses") Collection<Course> courses);
+
+    // Course's @SQLRestriction also applies here, so a course already deleted is not updated again
+    @Modifying
+    @Query("update Course c set c.deletedAt = :deletedAt where c.id = :courseId")
+    int softDelete(@Param("courseId") Long courseId, @Param("deletedAt") Instant deletedAt);
 }
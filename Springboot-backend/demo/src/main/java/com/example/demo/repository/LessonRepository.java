@@ -2,8 +2,15 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
+
+    // Native, as Course's @SQLRestriction hides deleted courses from queries on the entity
+    @Query(value = "select count(*) from course_lessons cl join course c on c.id = cl.course_id " +
+                   "where cl.lessons_id = :lessonId and c.deleted_at is not null", nativeQuery = true)
+    long countDeletedCoursesByLessonId(@Param("lessonId") Long lessonId);
 }
@@ -0,0 +1,33 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.CourseProgress;
+import com.example.demo.entity.ProgressCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProgressCounterRepository extends JpaRepository<ProgressCounter, Long> {
+
+    // Counters of a deleted course stay until it is purged; the exists leaves them out, as Course hides deleted rows
+    @Query("select new com.example.demo.dto.CourseProgress(c.courseId, c.completedLessons, c.totalLessons, c.updatedAt) " +
+           "from ProgressCounter c where c.userId = :userId " +
+           "and exists (select 1 from Course course where course.id = c.courseId) order by c.courseId")
+    List<CourseProgress> findCourseProgressByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.example.demo.dto.CourseProgress(c.courseId, c.completedLessons, c.totalLessons, c.updatedAt) " +
+           "from ProgressCounter c where c.userId = :userId and c.courseId = :courseId " +
+           "and exists (select 1 from Course course where course.id = c.courseId)")
+    Optional<CourseProgress> findCourseProgress(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("update ProgressCounter c set c.totalLessons = :totalLessons, c.updatedAt = :updatedAt where c.courseId = :courseId")
+    int updateTotalLessons(@Param("courseId") Long courseId, @Param("totalLessons") int totalLessons,
+                           @Param("updatedAt") Instant updatedAt);
+}
@@ -1,12 +1,41 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.CourseStatus;
 import com.example.demo.entity.Progress;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProgressRepository extends JpaRepository<Progress, Long> {
-    Optional<Progress> findByUserIdAndCourseId(Long userId, Long courseId);
-}
\ No newline at end of file
+    @Query("select p from Progress p where p.user.id = :userId and p.course.id = :courseId")
+    Optional<Progress> findByUserIdAndCourseId(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    // Existence check that leaves no Progress in the persistence context for a later locking read to reuse stale
+    @Query("select p.id from Progress p where p.user.id = :userId and p.course.id = :courseId")
+    Optional<Long> findIdByUserIdAndCourseId(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    // select ... for update: always reads the latest committed row and holds it until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Progress p where p.user.id = :userId and p.course.id = :courseId")
+    Optional<Progress> lockByUserIdAndCourseId(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    // The join leaves out deleted courses, whose Progress rows remain until they are purged
+    @Query("select new com.example.demo.dto.CourseStatus(c.id, p.status, " +
+           "case when c member of p.user.enrolledCourses then true else false end) " +
+           "from Progress p join p.course c where p.user.id = :userId order by p.id")
+    List<CourseStatus> findCourseStatusesByUserId(@Param("userId") Long userId);
+
+    @Query("select p from Progress p left join fetch p.completedLessons where p.course.id = :courseId")
+    List<Progress> findWithCompletedLessonsByCourseId(@Param("courseId") Long courseId);
+
+    @Query("select p from Progress p left join fetch p.completedLessons where p in :progress")
+    List<Progress> fetchCompletedLessons(@Param("progress") Collection<Progress> progress);
+}
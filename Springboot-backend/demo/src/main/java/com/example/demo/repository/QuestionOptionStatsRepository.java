@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.QuestionOptionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface QuestionOptionStatsRepository extends JpaRepository<QuestionOptionStats, QuestionOptionStats.Key> {
+    List<QuestionOptionStats> findByQuizIdOrderByQuestionIdAscOptionIndexAsc(Long quizId);
+}
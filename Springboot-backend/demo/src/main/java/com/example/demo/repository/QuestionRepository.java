@@ -1,10 +1,21 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Question;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     // You can define custom query methods here if needed
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select q from Question q left join fetch q.options where q in :questions")
+    List<Question> fetchOptions(@Param("questions") Collection<Question> questions);
 }
@@ -1,9 +1,23 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Quiz;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select q from Quiz q left join fetch q.questions where q in :quizzes")
+    List<Quiz> fetchQuestions(@Param("quizzes") Collection<Quiz> quizzes);
+
+    @Query("select q from Quiz q left join fetch q.quizSummaries s left join fetch s.user where q in :quizzes")
+    List<Quiz> fetchQuizSummaries(@Param("quizzes") Collection<Quiz> quizzes);
 }
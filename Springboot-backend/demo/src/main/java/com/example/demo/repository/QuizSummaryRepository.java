@@ -1,14 +1,42 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.QuizAttempt;
+import com.example.demo.dto.QuizAttemptStats;
 import com.example.demo.entity.Quiz;
 import com.example.demo.entity.QuizSummary;
 import com.example.demo.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface QuizSummaryRepository extends JpaRepository<QuizSummary, Long> {
     List<QuizSummary> findByUserAndQuiz(User user, Quiz quiz);
-}
\ No newline at end of file
+
+    List<QuizSummary> findByUserIdAndQuizId(Long userId, Long quizId);
+
+    @Query("select s from QuizSummary s left join fetch s.questionSummaries where s in :summaries")
+    List<QuizSummary> fetchQuestionSummaries(@Param("summaries") Collection<QuizSummary> summaries);
+
+    // Keyset page over idx_quiz_summary_attempts, newest first; question summaries are not read.
+    // Ids order attempts by submission only on a single instance (see IdBlocks).
+    @Query("select new com.example.demo.dto.QuizAttempt(s.id, s.score) from QuizSummary s " +
+           "where s.user.id = :userId and s.quiz.id = :quizId and s.id < :beforeId order by s.id desc")
+    List<QuizAttempt> findAttemptsBefore(@Param("userId") Long userId, @Param("quizId") Long quizId,
+                                         @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // No row when the user has not attempted the quiz. The latest attempt, the highest id (see IdBlocks), is joined in,
+    // so every aggregate comes from one grouped scan of the index
+    @Query("select new com.example.demo.dto.QuizAttemptStats(count(s), max(s.score), latest.score, avg(s.score)) " +
+           "from QuizSummary s, QuizSummary latest " +
+           "where s.user.id = :userId and s.quiz.id = :quizId " +
+           "and latest.id = (select max(m.id) from QuizSummary m where m.user.id = :userId and m.quiz.id = :quizId) " +
+           "group by latest.id, latest.score")
+    Optional<QuizAttemptStats> findAttemptStats(@Param("userId") Long userId, @Param("quizId") Long quizId);
+}
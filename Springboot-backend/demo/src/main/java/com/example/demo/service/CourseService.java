@@ -1,32 +1,80 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.ContentCache;
+import com.example.demo.cache.ContentSnapshots;
+import com.example.demo.dto.CatalogSnapshot;
+import com.example.demo.dto.CoursePage;
+import com.example.demo.dto.CourseSummary;
+import com.example.demo.dto.QuizQuestions;
+import com.example.demo.dto.RenderedQuiz;
 import com.example.demo.entity.Course;
+import com.example.demo.entity.CoursePurge;
 import com.example.demo.entity.Lesson;
 import com.example.demo.entity.Progress;
+import com.example.demo.entity.Question;
 import com.example.demo.entity.Quiz;
-import com.example.demo.entity.User;
+import com.example.demo.entity.QuizSummary;
 import com.example.demo.repository.CourseRepository;
 import com.example.demo.repository.LessonRepository;
 import com.example.demo.repository.ProgressRepository;
+import com.example.demo.repository.QuestionRepository;
 import com.example.demo.repository.QuizRepository;
-import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.QuizSummaryRepository;
+import com.example.demo.service.editing.CourseEditor;
+import com.example.demo.service.editing.JsonPatches;
+import com.example.demo.service.grading.GradingEngine;
+import com.example.demo.service.progress.ProgressBitmaps;
+import com.example.demo.service.progress.ProgressStore;
+import com.example.demo.service.purge.CoursePurger;
+import com.example.demo.service.recommendation.CourseTextChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 import org.hibernate.Hibernate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
 @Service
 @Transactional
 public class CourseService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int STREAM_CHUNK_SIZE = 100;
+    private static final String CATALOG_KEY = "all";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private CourseRepository courseRepository;
 
@@ -40,9 +88,48 @@ public class CourseService {
     private ProgressRepository progressRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuizSummaryRepository quizSummaryRepository;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private GradingEngine gradingEngine;
+
+    @Autowired
+    private ProgressBitmaps progressBitmaps;
+
+    @Autowired
+    private ProgressStore progressStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CoursePurger coursePurger;
+
+    @Autowired
+    private CourseEditor courseEditor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate chunkReads;
+
+    @PostConstruct
+    void init() {
+        chunkReads = new TransactionTemplate(transactionManager);
+        chunkReads.setReadOnly(true);
+    }
 
     public Course addCourse(Course course) {
+        evictCourseContent(List.of(), List.of());
         if (course.getIntroductoryQuiz() != null) {
             quizRepository.save(course.getIntroductoryQuiz());
         }
@@ -57,84 +144,342 @@ public class CourseService {
                 lessonRepository.save(lesson);
             });
         }
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        eventPublisher.publishEvent(CourseTextChangedEvent.updated(savedCourse));
+        return savedCourse;
     }
 
     public List<Course> getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
-        // Initialize lazy collections
-        courses.forEach(course -> {
-            Hibernate.initialize(course.getLessons());
-            if (course.getIntroductoryQuiz() != null) {
-                Hibernate.initialize(course.getIntroductoryQuiz());
-            }
-            if (course.getFinalQuiz() != null) {
-                Hibernate.initialize(course.getFinalQuiz());
-            }
+        return loadCourseGraphs(courseRepository.findIds(Pageable.unpaged()));
+    }
+
+    // Full course graphs for the given ids, in the order the ids were given
+    public List<Course> getCourses(List<Long> courseIds) {
+        Map<Long, Course> coursesById = new HashMap<>();
+        loadCourseGraphs(courseIds).forEach(course -> coursesById.put(course.getId(), course));
+        return courseIds.stream()
+                .map(coursesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public List<CourseSummary> getCourseSummaries() {
+        return getCatalogSnapshot().getCourses();
+    }
+
+    public CatalogSnapshot getCatalogSnapshot() {
+        return contentCache.get(ContentCache.CATALOG, CATALOG_KEY, () -> {
+            List<CourseSummary> summaries = List.copyOf(courseRepository.findSummaries());
+            StringBuilder content = new StringBuilder();
+            summaries.forEach(summary -> content.append(summary.getId()).append('\t')
+                    .append(summary.getName()).append('\t')
+                    .append(summary.getDescription()).append('\t')
+                    .append(summary.getImageUrl()).append('\t')
+                    .append(summary.getLessonCount()).append('\n'));
+            String version = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+            return new CatalogSnapshot(version, summaries);
         });
-        return courses;
     }
 
-    public Optional<Course> getCourseDetails(Long courseId) {
-        Optional<Course> courseOpt = courseRepository.findById(courseId);
-        courseOpt.ifPresent(course -> {
-            Hibernate.initialize(course.getLessons());
-            if (course.getIntroductoryQuiz() != null) {
-                Hibernate.initialize(course.getIntroductoryQuiz());
+    public List<Course> getCoursePage(int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page request");
+        }
+        return loadCourseGraphs(courseRepository.findIds(PageRequest.of(page, size)));
+    }
+
+    public CoursePage getCoursesAfter(Long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Ask for one extra id to know whether another page exists
+        List<Long> ids = courseRepository.findIdsAfter(afterId == null ? 0L : afterId, PageRequest.ofSize(limit + 1));
+        Long nextCursor = null;
+        if (ids.size() > limit) {
+            ids = ids.subList(0, limit);
+            nextCursor = ids.get(limit - 1);
+        }
+        return new CoursePage(loadCourseGraphs(ids), nextCursor);
+    }
+
+    // Walks the catalog in keyset chunks. Each chunk is read in its own short read-only transaction and handed to
+    // the action after it commits, so a slow reader holds no transaction open and memory stays bounded by the chunk size
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void forEachCourse(Consumer<Course> action) {
+        forEachChunk(this::loadCourseGraphs, action);
+    }
+
+    // Same walk over content only: lessons, quizzes, questions and options, without per-user data
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void forEachCourseContent(Consumer<Course> action) {
+        forEachChunk(this::loadCourseContent, action);
+    }
+
+    private void forEachChunk(Function<List<Long>, List<Course>> load, Consumer<Course> action) {
+        Long afterId = 0L;
+        while (true) {
+            Long after = afterId;
+            List<Course> courses = new ArrayList<>();
+            List<Long> ids = chunkReads.execute(tx -> {
+                List<Long> chunk = courseRepository.findIdsAfter(after, PageRequest.ofSize(STREAM_CHUNK_SIZE));
+                courses.addAll(load.apply(chunk));
+                return chunk;
+            });
+            if (ids.isEmpty()) {
+                return;
             }
-            if (course.getFinalQuiz() != null) {
-                Hibernate.initialize(course.getFinalQuiz());
+            courses.forEach(action);
+            // Under open-in-view the request's persistence context outlives the chunk transaction
+            entityManager.clear();
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    // Called by CourseImporter inside each group's transaction, once its rows are written
+    public void coursesImported(List<Course> courses) {
+        evictCourseContent(List.of(), List.of());
+        courses.forEach(course -> eventPublisher.publishEvent(CourseTextChangedEvent.updated(course)));
+    }
+
+    // Loads everything the Course JSON touches with one query per association level,
+    // so the number of round-trips does not depend on how many courses are requested
+    private List<Course> loadCourseGraphs(List<Long> courseIds) {
+        List<Course> courses = loadCourseContent(courseIds.stream().distinct().toList());
+        if (courses.isEmpty()) {
+            return courses;
+        }
+
+        Set<Quiz> quizzes = collectQuizzes(courses);
+        if (!quizzes.isEmpty()) {
+            List<QuizSummary> summaries = quizRepository.fetchQuizSummaries(quizzes).stream()
+                    .flatMap(quiz -> quiz.getQuizSummaries().stream())
+                    .toList();
+            if (!summaries.isEmpty()) {
+                quizSummaryRepository.fetchQuestionSummaries(summaries);
             }
+        }
+
+        List<Progress> progress = courseRepository.fetchProgressList(courses).stream()
+                .flatMap(course -> course.getProgressList().stream())
+                .toList();
+        if (!progress.isEmpty()) {
+            progressRepository.fetchCompletedLessons(progress);
+        }
+        return courses;
+    }
+
+    // Courses with lessons, quizzes, questions and options, without per-user data
+    private List<Course> loadCourseContent(List<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Course> courses = courseRepository.findWithLessonsAndQuizzesByIdIn(courseIds);
+        loadQuizContent(collectQuizzes(courses));
+        return courses;
+    }
+
+    private void loadQuizContent(Collection<Quiz> quizzes) {
+        if (quizzes.isEmpty()) {
+            return;
+        }
+        List<Question> questions = quizRepository.fetchQuestions(quizzes).stream()
+                .flatMap(quiz -> quiz.getQuestions().stream())
+                .filter(Objects::nonNull)
+                .toList();
+        if (!questions.isEmpty()) {
+            questionRepository.fetchOptions(questions);
+        }
+    }
+
+    private Set<Quiz> collectQuizzes(List<Course> courses) {
+        Set<Quiz> quizzes = new LinkedHashSet<>();
+        courses.forEach(course -> {
+            quizzes.add(course.getIntroductoryQuiz());
+            quizzes.add(course.getFinalQuiz());
+            course.getLessons().forEach(lesson -> quizzes.add(lesson.getQuiz()));
+        });
+        quizzes.remove(null);
+        return quizzes;
+    }
+
+    private Optional<Course> getCourseSnapshot(Long courseId) {
+        return Optional.ofNullable(contentCache.get(ContentCache.COURSE, courseId, () ->
+                loadCourseContent(List.of(courseId)).stream()
+                        .findFirst()
+                        .map(ContentSnapshots::copyCourse)
+                        .orElse(null)));
+    }
+
+    private void evictCourseContent(Collection<Long> courseIds, Collection<Long> lessonIds) {
+        runNowAndAfterCommit(() -> {
+            contentCache.evict(ContentCache.CATALOG, CATALOG_KEY);
+            courseIds.forEach(id -> contentCache.evict(ContentCache.COURSE, id));
+            courseIds.forEach(id -> contentCache.evict(ContentCache.LESSON_ORDINALS, id));
+            lessonIds.forEach(id -> contentCache.evict(ContentCache.LESSON_QUIZ, id));
+        });
+    }
+
+    // Answer keys and rendered quizzes are kept per quiz id, so only edits that keep a quiz's id need to evict them
+    private void evictQuizContent(Collection<Long> quizIds) {
+        runNowAndAfterCommit(() -> {
+            gradingEngine.evict(quizIds);
+            quizIds.forEach(id -> contentCache.evict(ContentCache.QUIZ_QUESTIONS, id));
         });
-        return courseOpt;
+    }
+
+    // Evicts now and again after commit, so a read racing the write cannot keep the old snapshot
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    // A quiz posted with an existing id replaces that quiz's questions
+    private List<Long> quizIds(Quiz quiz) {
+        return quiz.getId() == null ? List.of() : List.of(quiz.getId());
+    }
+
+    private List<Long> quizIds(Course course) {
+        List<Quiz> quizzes = new ArrayList<>();
+        quizzes.add(course.getIntroductoryQuiz());
+        quizzes.add(course.getFinalQuiz());
+        if (course.getLessons() != null) {
+            course.getLessons().forEach(lesson -> quizzes.add(lesson.getQuiz()));
+        }
+        return quizzes.stream()
+                .filter(Objects::nonNull)
+                .map(Quiz::getId)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<Long> lessonIds(Course course) {
+        if (course.getLessons() == null) {
+            return List.of();
+        }
+        return course.getLessons().stream()
+                .map(Lesson::getId)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public Optional<Course> getCourseDetails(Long courseId) {
+        return getCourseSnapshot(courseId);
     }
 
     public Course addIntroductoryQuiz(Long courseId, Quiz quiz) {
         Course course = courseRepository.findById(courseId).orElseThrow();
         course.setIntroductoryQuiz(quiz);
+        evictQuizContent(quizIds(quiz));
+        evictCourseContent(List.of(courseId), List.of());
         return courseRepository.save(course);
     }
 
     public Course addFinalQuiz(Long courseId, Quiz quiz) {
         Course course = courseRepository.findById(courseId).orElseThrow();
         course.setFinalQuiz(quiz);
+        evictQuizContent(quizIds(quiz));
+        evictCourseContent(List.of(courseId), List.of());
         return courseRepository.save(course);
     }
 
     public Course addLesson(Long courseId, Lesson lesson) {
         Course course = courseRepository.findById(courseId).orElseThrow();
+        // Only a re-used lesson can land before existing ordinals; new lessons get the highest id
+        boolean existingLesson = lesson.getId() != null;
         course.getLessons().add(lesson);
-        return courseRepository.save(course);
+        evictCourseContent(List.of(courseId), List.of());
+        Course savedCourse = courseRepository.save(course);
+        progressBitmaps.lessonsChanged(courseId, existingLesson);
+        eventPublisher.publishEvent(CourseTextChangedEvent.updated(savedCourse));
+        return savedCourse;
     }
 
     public Lesson addQuizToLesson(Long lessonId, Quiz quiz) {
         Lesson lesson = lessonRepository.findById(lessonId).orElseThrow();
         lesson.setQuiz(quiz);
+        evictQuizContent(quizIds(quiz));
+        evictCourseContent(courseRepository.findIdsByLessonId(lessonId), List.of(lessonId));
         return lessonRepository.save(lesson);
     }
 
     public Optional<Quiz> getIntroductoryQuiz(Long courseId) {
-        Course course = courseRepository.findById(courseId).orElseThrow();
+        Course course = getCourseSnapshot(courseId).orElseThrow();
         return Optional.ofNullable(course.getIntroductoryQuiz());
     }
 
     public Optional<Quiz> getFinalQuiz(Long courseId) {
-        Course course = courseRepository.findById(courseId).orElseThrow();
+        Course course = getCourseSnapshot(courseId).orElseThrow();
         return Optional.ofNullable(course.getFinalQuiz());
     }
 
     public List<Lesson> getLessons(Long courseId) {
-        Course course = courseRepository.findById(courseId).orElseThrow();
+        Course course = getCourseSnapshot(courseId).orElseThrow();
         return course.getLessons();
     }
 
     public Optional<Quiz> getQuizOfLesson(Long lessonId) {
-        Lesson lesson = lessonRepository.findById(lessonId).orElseThrow();
-        return Optional.ofNullable(lesson.getQuiz());
+        return contentCache.get(ContentCache.LESSON_QUIZ, lessonId, () -> {
+            Lesson lesson = lessonRepository.findById(lessonId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson not found"));
+            // A deleted course's lessons remain until it is purged
+            if (lessonRepository.countDeletedCoursesByLessonId(lessonId) > 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson not found");
+            }
+            if (lesson.getQuiz() != null) {
+                loadQuizContent(List.of(lesson.getQuiz()));
+            }
+            return Optional.ofNullable(ContentSnapshots.copyQuiz(lesson.getQuiz()));
+        });
+    }
+
+    public RenderedQuiz getIntroductoryQuizQuestions(Long courseId) {
+        Course course = getCourseSnapshot(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        return renderQuestions(course.getIntroductoryQuiz());
+    }
+
+    public RenderedQuiz getFinalQuizQuestions(Long courseId) {
+        Course course = getCourseSnapshot(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        return renderQuestions(course.getFinalQuiz());
+    }
+
+    public RenderedQuiz getLessonQuizQuestions(Long lessonId) {
+        return renderQuestions(getQuizOfLesson(lessonId).orElse(null));
+    }
+
+    // Rendered from the content snapshot, so the cost does not grow with the quiz's attempts
+    private RenderedQuiz renderQuestions(Quiz quiz) {
+        if (quiz == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz not found");
+        }
+        return contentCache.get(ContentCache.QUIZ_QUESTIONS, quiz.getId(), () -> {
+            List<QuizQuestions.Question> questions = new ArrayList<>();
+            for (Question question : Objects.requireNonNullElse(quiz.getQuestions(), List.<Question>of())) {
+                List<QuizQuestions.Option> options = new ArrayList<>();
+                for (Question.Option option : Objects.requireNonNullElse(question.getOptions(), List.<Question.Option>of())) {
+                    options.add(new QuizQuestions.Option(option.getText()));
+                }
+                questions.add(new QuizQuestions.Question(question.getId(), question.getName(), options));
+            }
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(new QuizQuestions(quiz.getId(), quiz.getName(), questions));
+                return new RenderedQuiz(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not render quiz " + quiz.getId(), e);
+            }
+        });
     }
 
     public Optional<Lesson> getLesson(Long courseId, Long lessonId) {
-        Course course = courseRepository.findById(courseId).orElseThrow();
+        Course course = getCourseSnapshot(courseId).orElseThrow();
         return course.getLessons().stream()
                 .filter(lesson -> lesson.getId().equals(lessonId))
                 .findFirst();
@@ -142,7 +487,7 @@ public class CourseService {
 
     public String getLessonStatus(Long userId, Long courseId, Long lessonId) {
         Progress progress = progressRepository.findByUserIdAndCourseId(userId, courseId).orElseThrow();
-        if (progress.getCompletedLessons().stream().anyMatch(lesson -> lesson.getId().equals(lessonId))) {
+        if (progressBitmaps.isCompleted(progress, lessonId)) {
             return "Completed";
         } else {
             return "In Progress";
@@ -150,10 +495,10 @@ public class CourseService {
     }
 
     public Progress addLessonToInProgress(Long userId, Long courseId, Long lessonId) {
-        Progress progress = progressRepository.findByUserIdAndCourseId(userId, courseId).orElseThrow();
+        Progress progress = progressStore.lock(userId, courseId);
         Lesson lesson = lessonRepository.findById(lessonId).orElseThrow();
-        if (!progress.getCompletedLessons().contains(lesson)) {
-            progress.getCompletedLessons().add(lesson);
+        if (!progressBitmaps.isCompleted(progress, lessonId)) {
+            progressBitmaps.markCompleted(progress, lesson);
             progressRepository.save(progress);
         }
         return progress;
@@ -161,12 +506,14 @@ public class CourseService {
 
     public double getCourseCompletionPercentage(Long userId, Long courseId) {
         Progress progress = progressRepository.findByUserIdAndCourseId(userId, courseId).orElseThrow();
-        
-        int totalLessons = progress.getCourse().getLessons().size();
-        if (totalLessons == 0) return 0.0;
-        
-        int completedLessons = progress.getCompletedLessons().size();
-        return (double) completedLessons / totalLessons * 100;
+        return progressBitmaps.percentComplete(progress);
+    }
+
+    public Optional<Lesson> getNextIncompleteLesson(Long userId, Long courseId) {
+        Progress progress = progressRepository.findByUserIdAndCourseId(userId, courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Progress not found"));
+        return progressBitmaps.nextIncompleteLessonId(progress)
+                .flatMap(lessonId -> getLesson(courseId, lessonId));
     }
 
     public List<Lesson> getCompletedLessons(Long userId, Long courseId) {
@@ -178,102 +525,100 @@ public class CourseService {
         return new ArrayList<>(completedLessons);
     }
 
+    // Fields left out of the body keep their stored values, as do the quizzes and an absent or empty lesson list
     public Course updateCourse(Long courseId, Course updatedCourse) {
-        Course existingCourse = courseRepository.findById(courseId)
-                .orElseThrow();
-
-        // Update basic course information safely
-        if (updatedCourse.getName() != null) {
-            existingCourse.setName(updatedCourse.getName());
+        Course existingCourse = loadCourseForEdit(courseId);
+        if (updatedCourse.getName() == null) {
+            updatedCourse.setName(existingCourse.getName());
         }
-        if (updatedCourse.getDescription() != null) {
-            existingCourse.setDescription(updatedCourse.getDescription());
+        if (updatedCourse.getDescription() == null) {
+            updatedCourse.setDescription(existingCourse.getDescription());
         }
-        if (updatedCourse.getImageUrl() != null) {
-            existingCourse.setImageUrl(updatedCourse.getImageUrl());
+        if (updatedCourse.getImageUrl() == null) {
+            updatedCourse.setImageUrl(existingCourse.getImageUrl());
         }
+        if (updatedCourse.getIntroductoryQuiz() == null) {
+            updatedCourse.setIntroductoryQuiz(existingCourse.getIntroductoryQuiz());
+        }
+        if (updatedCourse.getFinalQuiz() == null) {
+            updatedCourse.setFinalQuiz(existingCourse.getFinalQuiz());
+        }
+        if (updatedCourse.getLessons() == null || updatedCourse.getLessons().isEmpty()) {
+            updatedCourse.setLessons(existingCourse.getLessons());
+        }
+        return applyEdit(existingCourse, updatedCourse);
+    }
 
-        // Handle introductory quiz update
-        updateIntroductoryQuiz(existingCourse, updatedCourse);
-
-        // Handle final quiz update
-        updateFinalQuiz(existingCourse, updatedCourse);
-
-        // Handle lessons update
-        updateLessons(existingCourse, updatedCourse);
-
-        return courseRepository.save(existingCourse);
+    // RFC 7386: the patch is merged into the course as GET /courses/{courseId} returns it. Arrays are replaced
+    // whole, so a lesson list in the patch has to list every lesson to keep, by id.
+    public Course mergePatchCourse(Long courseId, JsonNode patch) {
+        return patchCourse(courseId, document -> JsonPatches.merge(document, patch));
     }
 
-    private void updateIntroductoryQuiz(Course existingCourse, Course updatedCourse) {
-        if (updatedCourse.getIntroductoryQuiz() != null) {
-            Quiz quiz = updatedCourse.getIntroductoryQuiz();
-            if (existingCourse.getIntroductoryQuiz() != null) {
-                quiz.setId(existingCourse.getIntroductoryQuiz().getId());
-            }
-            quiz = quizRepository.save(quiz);
-            existingCourse.setIntroductoryQuiz(quiz);
-        }
+    // RFC 6902: operations on paths of the course as GET /courses/{courseId} returns it, e.g. /lessons/3/name
+    public Course jsonPatchCourse(Long courseId, JsonNode operations) {
+        return patchCourse(courseId, document -> JsonPatches.apply(document, operations));
     }
 
-    private void updateFinalQuiz(Course existingCourse, Course updatedCourse) {
-        if (updatedCourse.getFinalQuiz() != null) {
-            Quiz quiz = updatedCourse.getFinalQuiz();
-            if (existingCourse.getFinalQuiz() != null) {
-                quiz.setId(existingCourse.getFinalQuiz().getId());
-            }
-            quiz = quizRepository.save(quiz);
-            existingCourse.setFinalQuiz(quiz);
+    private Course patchCourse(Long courseId, UnaryOperator<JsonNode> patch) {
+        Course existingCourse = loadCourseForEdit(courseId);
+        JsonNode document = patch.apply(objectMapper.valueToTree(ContentSnapshots.copyCourse(existingCourse)));
+        Course patchedCourse;
+        try {
+            patchedCourse = objectMapper.treeToValue(document, Course.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            // The patch applied but its result is not a course (RFC 5789: unprocessable)
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Patched course is invalid: " + e.getMessage());
         }
+        return applyEdit(existingCourse, patchedCourse);
     }
 
-    private void updateLessons(Course existingCourse, Course updatedCourse) {
-        if (updatedCourse.getLessons() != null && !updatedCourse.getLessons().isEmpty()) {
-            List<Lesson> currentLessons = new ArrayList<>(existingCourse.getLessons());
-            existingCourse.getLessons().clear();
-
-            updatedCourse.getLessons().forEach(lesson -> {
-                if (lesson.getQuiz() != null) {
-                    quizRepository.save(lesson.getQuiz());
-                }
-                Lesson savedLesson = lessonRepository.save(lesson);
-                existingCourse.getLessons().add(savedLesson);
-            });
+    private Course loadCourseForEdit(Long courseId) {
+        return loadCourseContent(List.of(courseId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+    }
 
-            // Clean up any orphaned lessons
-            currentLessons.forEach(lesson -> {
-                if (!existingCourse.getLessons().contains(lesson)) {
-                    lessonRepository.delete(lesson);
-                }
-            });
+    // Writes only the differences (CourseEditor), then reloads the course, as the editor clears the session
+    private Course applyEdit(Course existingCourse, Course editedCourse) {
+        Long courseId = existingCourse.getId();
+        List<Long> previousLessonIds = lessonIds(existingCourse);
+        List<Long> previousQuizIds = quizIds(existingCourse);
+
+        CourseEditor.Result edit = courseEditor.apply(existingCourse, editedCourse);
+        Course savedCourse = loadCourseForEdit(courseId);
+        // New lessons get the highest ids and keep every ordinal; removed ones shift them
+        if (edit.isLessonsRemoved()) {
+            progressBitmaps.lessonsChanged(courseId, true);
+        } else if (edit.isLessonsAdded()) {
+            progressBitmaps.lessonsChanged(courseId, false);
         }
+        List<Long> affectedLessonIds = new ArrayList<>(previousLessonIds);
+        affectedLessonIds.addAll(lessonIds(savedCourse));
+        evictCourseContent(List.of(courseId), affectedLessonIds);
+        List<Long> affectedQuizIds = new ArrayList<>(previousQuizIds);
+        affectedQuizIds.addAll(quizIds(savedCourse));
+        evictQuizContent(affectedQuizIds);
+        eventPublisher.publishEvent(CourseTextChangedEvent.updated(savedCourse));
+        return savedCourse;
     }
 
-    public void deleteCourse(Long courseId) {
+    // Hides the course at once; CoursePurger then deletes its learner data and content in bounded batches
+    public CoursePurge deleteCourse(Long courseId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, 
                         "Course not found"
                 ));
 
-        try {
-            // Remove the course from all enrolled users
-            for (User user : course.getEnrolledUsers()) {
-                user.getEnrolledCourses().remove(course);
-                userRepository.save(user);
-            }
+        evictCourseContent(List.of(courseId), lessonIds(course));
+        evictQuizContent(quizIds(course));
+        eventPublisher.publishEvent(CourseTextChangedEvent.deleted(courseId));
 
-            // Clear all progress records
-            course.getProgressList().clear();
-
-            // Delete the course
-            courseRepository.delete(course);
-            courseRepository.flush();
-        } catch (Exception e) {
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Failed to delete course: " + e.getMessage()
-            );
+        if (courseRepository.softDelete(courseId, Instant.now()) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
         }
+        return coursePurger.schedule(courseId);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,13 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CatalogSnapshot;
+import com.example.demo.dto.CourseDashboard;
+import com.example.demo.dto.CourseProgress;
+import com.example.demo.dto.CourseStatus;
+import com.example.demo.dto.QuizAttempt;
+import com.example.demo.dto.QuizAttemptPage;
+import com.example.demo.dto.QuizAttemptStats;
+import com.example.demo.dto.RecommendationInput;
 import com.example.demo.entity.Course;
 import com.example.demo.entity.Lesson;
 import com.example.demo.entity.Progress;
@@ -9,6 +17,7 @@ import com.example.demo.entity.QuizSummary;
 import com.example.demo.entity.User;
 import com.example.demo.entity.QuizSummary.QuestionSummary;
 import com.example.demo.repository.CourseRepository;
+import com.example.demo.repository.ProgressCounterRepository;
 import com.example.demo.repository.ProgressRepository;
 
 import com.example.demo.repository.QuizRepository;
@@ -16,20 +25,27 @@ import com.example.demo.repository.QuizSummaryRepository;
 
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.LessonRepository;
+import com.example.demo.service.analytics.QuestionAnalytics;
+import com.example.demo.service.grading.GradingEngine;
+import com.example.demo.service.progress.ProgressBitmaps;
+import com.example.demo.service.progress.ProgressStore;
+import com.example.demo.service.recommendation.RecommendationEngine;
 
 
 import jakarta.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,6 +53,17 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class UserService {
 
+    private static final int MAX_RECOMMENDATIONS = 50;
+    private static final int MAX_ATTEMPT_PAGE_SIZE = 100;
+
+    private static final Predicate<CourseStatus> ENROLLED =
+            status -> status.getStatus() == Progress.Status.ENROLLED;
+    private static final Predicate<CourseStatus> COMPLETED =
+            status -> status.getStatus() == Progress.Status.COMPLETED;
+    // In-progress courses are only listed while the user is still enrolled in them
+    private static final Predicate<CourseStatus> IN_PROGRESS =
+            status -> status.getStatus() == Progress.Status.IN_PROGRESS && status.isEnrolled();
+
     @Autowired
     private UserRepository userRepository;
 
@@ -55,6 +82,27 @@ public class UserService {
     @Autowired
     private LessonRepository lessonRepository;
 
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private RecommendationEngine recommendationEngine;
+
+    @Autowired
+    private GradingEngine gradingEngine;
+
+    @Autowired
+    private QuestionAnalytics questionAnalytics;
+
+    @Autowired
+    private ProgressBitmaps progressBitmaps;
+
+    @Autowired
+    private ProgressStore progressStore;
+
+    @Autowired
+    private ProgressCounterRepository progressCounterRepository;
+
     
 
     public User registerUser(User user) {
@@ -69,26 +117,28 @@ public class UserService {
         return Optional.empty();
     }
 
+    @Transactional
     public User enrollCourse(Long userId, Long courseId) {
         User user = userRepository.findById(userId).orElseThrow();
         Course course = courseRepository.findById(courseId).orElseThrow();
-        user.getEnrolledCourses().add(course);
-
-        Progress progress = new Progress();
-        progress.setUser(user);
-        progress.setCourse(course);
-        progress.setCompletedLessons(new HashSet<>()); // Changed from List.of()
-        progressRepository.save(progress);
+        // Enrolling twice keeps one enrollment and one progress row
+        if (!user.getEnrolledCourses().contains(course)) {
+            user.getEnrolledCourses().add(course);
+        }
+        progressStore.lockOrCreate(userId, courseId);
 
         return userRepository.save(user);
     }
 
+    @Transactional
     public User completeCourse(Long userId, Long courseId) {
+        // Locked first, like the submissions that change the same row, so concurrent writers take turns
+        Progress progress = progressStore.lock(userId, courseId);
+
         User user = userRepository.findById(userId).orElseThrow();
         Course course = courseRepository.findById(courseId).orElseThrow();
         user.getEnrolledCourses().remove(course);
 
-        Progress progress = progressRepository.findByUserIdAndCourseId(userId, courseId).orElseThrow();
         progress.setStatus(Progress.Status.COMPLETED);
         progressRepository.save(progress);
 
@@ -102,49 +152,127 @@ public class UserService {
     }
 
     public List<QuizSummary> getQuizResults(Long userId, Long quizId) {
-        User user = userRepository.findById(userId).orElseThrow();
-        return user.getQuizSummaries().stream()
-                .filter(quizSummary -> quizSummary.getQuiz().getId().equals(quizId))
-                .toList();
+        return quizSummaryRepository.findByUserIdAndQuizId(userId, quizId);
+    }
+
+    public QuizAttemptPage getQuizAttempts(Long userId, Long quizId, Long beforeId, int limit) {
+        if (limit < 1 || limit > MAX_ATTEMPT_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Limit must be between 1 and " + MAX_ATTEMPT_PAGE_SIZE);
+        }
+        // Ask for one extra attempt to know whether another page exists
+        List<QuizAttempt> attempts = quizSummaryRepository.findAttemptsBefore(userId, quizId,
+                beforeId == null ? Long.MAX_VALUE : beforeId, PageRequest.ofSize(limit + 1));
+        Long nextCursor = null;
+        if (attempts.size() > limit) {
+            attempts = attempts.subList(0, limit);
+            nextCursor = attempts.get(limit - 1).getId();
+        }
+        return new QuizAttemptPage(attempts, nextCursor);
+    }
+
+    public QuizAttemptStats getQuizAttemptStats(Long userId, Long quizId) {
+        return quizSummaryRepository.findAttemptStats(userId, quizId)
+                .orElseGet(() -> new QuizAttemptStats(0, null, null, null));
     }
 
     public List<Course> getEnrolledCourses(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow();
-        return user.getProgressList().stream()
-                .filter(progress -> progress.getStatus() == Progress.Status.ENROLLED)
-                .map(Progress::getCourse)
-                .toList();
+        return getCoursesMatching(userId, ENROLLED);
     }
 
     public List<Course> getCompletedCourses(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow();
-        return user.getProgressList().stream()
-                .filter(progress -> progress.getStatus() == Progress.Status.COMPLETED)
-                .map(Progress::getCourse)
-                .toList();
+        return getCoursesMatching(userId, COMPLETED);
     }
 
     public List<Course> getInProgressCourses(Long userId) {
-        try {
-            User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-            
-            log.debug("Fetching in-progress courses for user: {}", userId);
-            
-            List<Course> inProgressCourses = user.getEnrolledCourses().stream()
-                .filter(course -> {
-                    Optional<Progress> progress = progressRepository.findByUserIdAndCourseId(userId, course.getId());
-                    return progress.map(p -> p.getStatus() == Progress.Status.IN_PROGRESS).orElse(false);
-                })
-                .collect(Collectors.toList());
-            
-            log.debug("Found {} in-progress courses", inProgressCourses.size());
-            return inProgressCourses;
-            
-        } catch (Exception e) {
-            log.error("Error fetching in-progress courses: {}", e.getMessage());
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error fetching courses");
+        log.debug("Fetching in-progress courses for user: {}", userId);
+        List<Course> inProgressCourses = getCoursesMatching(userId, IN_PROGRESS);
+        log.debug("Found {} in-progress courses", inProgressCourses.size());
+        return inProgressCourses;
+    }
+
+    // All three course buckets from one progress query and one batch of course loads
+    public CourseDashboard getDashboard(Long userId) {
+        List<CourseStatus> statuses = findCourseStatuses(userId);
+        Map<Long, Course> coursesById = new HashMap<>();
+        courseService.getCourses(statuses.stream().map(CourseStatus::getCourseId).toList())
+                .forEach(course -> coursesById.put(course.getId(), course));
+        return new CourseDashboard(
+                selectCourses(statuses, ENROLLED, coursesById),
+                selectCourses(statuses, IN_PROGRESS, coursesById),
+                selectCourses(statuses, COMPLETED, coursesById));
+    }
+
+    // Everything the recommender needs in one response; the catalog is left out when
+    // the caller already has the current version
+    public RecommendationInput getRecommendationInput(Long userId, String knownCatalogVersion) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        List<String> interests = user.getInterests() == null ? List.of() : List.copyOf(user.getInterests());
+        List<CourseStatus> statuses = progressRepository.findCourseStatusesByUserId(userId);
+        CatalogSnapshot catalog = courseService.getCatalogSnapshot();
+        boolean catalogKnown = catalog.getVersion().equals(knownCatalogVersion);
+        return new RecommendationInput(
+                interests,
+                selectCourseIds(statuses, ENROLLED),
+                selectCourseIds(statuses, IN_PROGRESS),
+                selectCourseIds(statuses, COMPLETED),
+                catalog.getVersion(),
+                catalogKnown ? null : catalog.getCourses());
+    }
+
+    // Scored in-process; every course the user is enrolled in or has progress on shapes the profile and is excluded
+    public List<Course> getRecommendations(Long userId, int limit) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        List<String> interests = user.getInterests() == null ? List.of() : List.copyOf(user.getInterests());
+        List<Long> ownedCourseIds = progressRepository.findCourseStatusesByUserId(userId).stream()
+                .map(CourseStatus::getCourseId)
+                .toList();
+        return courseService.getCourses(
+                recommendationEngine.recommend(interests, ownedCourseIds, ownedCourseIds,
+                        Math.max(0, Math.min(limit, MAX_RECOMMENDATIONS))));
+    }
+
+    public List<CourseProgress> getCourseProgress(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return progressCounterRepository.findCourseProgressByUserId(userId);
+    }
+
+    public CourseProgress getCourseProgress(Long userId, Long courseId) {
+        return progressCounterRepository.findCourseProgress(userId, courseId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Progress not found"));
+    }
+
+    private List<Long> selectCourseIds(List<CourseStatus> statuses, Predicate<CourseStatus> filter) {
+        return statuses.stream()
+                .filter(filter)
+                .map(CourseStatus::getCourseId)
+                .toList();
+    }
+
+    private List<Course> getCoursesMatching(Long userId, Predicate<CourseStatus> filter) {
+        return courseService.getCourses(findCourseStatuses(userId).stream()
+                .filter(filter)
+                .map(CourseStatus::getCourseId)
+                .toList());
+    }
+
+    private List<Course> selectCourses(List<CourseStatus> statuses, Predicate<CourseStatus> filter, Map<Long, Course> coursesById) {
+        return statuses.stream()
+                .filter(filter)
+                .map(status -> coursesById.get(status.getCourseId()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<CourseStatus> findCourseStatuses(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
         }
+        return progressRepository.findCourseStatusesByUserId(userId);
     }
 
     public List<Course> getRecommendedCourses(Long userId) {
@@ -176,11 +304,11 @@ public class UserService {
         quizSummary.setQuiz(course.getIntroductoryQuiz());
         quizSummary.setQuestionSummaries(questionSummaries);
 
-        // Calculate the score
-        int score = calculateScore(questionSummaries);
+        // Graded against the server's answer key; client isCorrect flags are overwritten
+        int score = grade(quizSummary.getQuiz(), questionSummaries);
         quizSummary.setScore(score);
         
-        return quizSummaryRepository.save(quizSummary);
+        return saveQuizSummary(quizSummary);
     }
 
     @Transactional
@@ -195,14 +323,13 @@ public class UserService {
         quizSummary.setQuiz(course.getFinalQuiz());
         quizSummary.setQuestionSummaries(questionSummaries);
 
-        // Calculate the score
-        int score = calculateScore(questionSummaries);
+        // Graded against the server's answer key; client isCorrect flags are overwritten
+        int score = grade(quizSummary.getQuiz(), questionSummaries);
         quizSummary.setScore(score);
         
-        // If score is >= 80%, mark the course as completed
+        // If score is >= 80%, mark the course as completed. Locked like lesson submissions, which change the same row.
         if (score >= 80) {
-            Progress progress = progressRepository.findByUserIdAndCourseId(userId, courseId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Progress not found"));
+            Progress progress = progressStore.lock(userId, courseId);
             
             progress.setStatus(Progress.Status.COMPLETED);
             progressRepository.save(progress);
@@ -212,24 +339,17 @@ public class UserService {
             userRepository.save(user);
         }
         
-        return quizSummaryRepository.save(quizSummary);
+        return saveQuizSummary(quizSummary);
     }
 
     @Transactional
     public QuizSummary addLessonQuizSummary(Long userId, Long courseId, Long lessonId, List<QuestionSummary> questionSummaries) {
-        Progress progress = getOrCreateProgress(userId, courseId);
-        Lesson lesson = lessonRepository.findById(lessonId)
-                .orElseThrow();
-        
-        // Add the completed lesson to the Set
-        progress.addCompletedLesson(lesson);
-        
-        // Save the progress
-        progressRepository.save(progress);
+        // Locked until commit, so concurrent submissions for this course apply one after another
+        Progress progress = progressStore.lockOrCreate(userId, courseId);
         
         User user = userRepository.findById(userId).orElseThrow();
         Course course = courseRepository.findById(courseId).orElseThrow();
-        lesson = course.getLessons().stream()
+        Lesson lesson = course.getLessons().stream()
                 .filter(l -> l.getId().equals(lessonId))
                 .findFirst()
                 .orElseThrow();
@@ -239,46 +359,31 @@ public class UserService {
         quizSummary.setQuiz(lesson.getQuiz());
         quizSummary.setQuestionSummaries(questionSummaries);
 
-        // Calculate the score
-        int score = calculateScore(questionSummaries);
+        // Graded against the server's answer key; client isCorrect flags are overwritten
+        int score = grade(quizSummary.getQuiz(), questionSummaries);
         quizSummary.setScore(score);
         
-        // If score is >= 80%, mark the lesson as completed
-        if (score >= 80) {
-            progress = progressRepository.findByUserIdAndCourseId(userId, courseId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Progress not found"));
-            
-            // Update to use Set methods instead of List
-            progress.addCompletedLesson(lesson);
-            progressRepository.save(progress);
-        }
+        // Submitting a lesson quiz completes the lesson whatever the score, as it always has; marking it is idempotent
+        progressBitmaps.markCompleted(progress, lesson);
+        progressRepository.save(progress);
         
-        return quizSummaryRepository.save(quizSummary);
+        return saveQuizSummary(quizSummary);
     }
 
-    private int calculateScore(List<QuestionSummary> questionSummaries) {
-        int totalQuestions = questionSummaries.size();
-        int correctAnswers = (int) questionSummaries.stream()
-                .filter(QuestionSummary::isCorrect)
-                .count();
-        return (int) ((double) correctAnswers / totalQuestions * 100);
+    private QuizSummary saveQuizSummary(QuizSummary quizSummary) {
+        QuizSummary saved = quizSummaryRepository.save(quizSummary);
+        questionAnalytics.recordAfterCommit(saved);
+        return saved;
     }
 
-    private Progress getOrCreateProgress(Long userId, Long courseId) {
-        return progressRepository.findByUserIdAndCourseId(userId, courseId)
-                .orElseGet(() -> {
-                    Progress newProgress = new Progress();
-                    User user = userRepository.findById(userId)
-                            .orElseThrow();
-                    Course course = courseRepository.findById(courseId)
-                            .orElseThrow();
-                    newProgress.setUser(user);
-                    newProgress.setCourse(course);
-                    newProgress.setCompletedLessons(new HashSet<>());
-                    return progressRepository.save(newProgress);
-                });
+    private int grade(Quiz quiz, List<QuestionSummary> questionSummaries) {
+        if (quiz == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz not found");
+        }
+        return gradingEngine.grade(quiz.getId(), questionSummaries).getScore();
     }
 
+
     
 
     
@@ -347,11 +452,7 @@ public class UserService {
 
     @Transactional
     public Progress markCourseAsInProgress(Long userId, Long courseId) {
-        Progress progress = progressRepository.findByUserIdAndCourseId(userId, courseId)
-                .orElseThrow(() -> new ResponseStatusException(
-                    HttpStatus.NOT_FOUND, 
-                    "Progress not found for user " + userId + " and course " + courseId
-                ));
+        Progress progress = progressStore.lock(userId, courseId);
         
         progress.markAsInProgress(); // Use the method from Progress entity
         return progressRepository.save(progress);
@@ -359,12 +460,8 @@ public class UserService {
 
     @Transactional
     public Progress markLessonAsCompleted(Long userId, Long courseId, Long lessonId) {
-        // Get the progress record
-        Progress progress = progressRepository.findByUserIdAndCourseId(userId, courseId)
-            .orElseThrow(() -> new ResponseStatusException(
-                HttpStatus.NOT_FOUND,
-                "Progress not found for user " + userId + " and course " + courseId
-            ));
+        // Get the progress record, locked until commit
+        Progress progress = progressStore.lock(userId, courseId);
 
         // Get the lesson
         Lesson lesson = lessonRepository.findById(lessonId)
@@ -374,7 +471,7 @@ public class UserService {
             ));
 
         // Add the lesson to completed lessons
-        progress.addCompletedLesson(lesson);
+        progressBitmaps.markCompleted(progress, lesson);
         
         // Ensure course is marked as in progress
         progress.markAsInProgress();
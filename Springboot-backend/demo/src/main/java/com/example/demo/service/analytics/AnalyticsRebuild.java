@@ -0,0 +1,149 @@
+package com.example.demo.service.analytics;
+
+import com.example.demo.dto.AnalyticsRebuildStatus;
+import com.example.demo.entity.QuestionOptionStats;
+import com.example.demo.service.grading.GradingEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Recomputes question_option_stats from quiz_question_summaries, one quiz or all of them, on a background thread.
+// Attempts are read in keyset chunks of quiz_summary ids and folded into one counter per (question, option),
+// so memory is bounded by the chunk size and the number of options rather than the number of answers.
+// Attempts committed while the scan runs may be counted twice; a rebuild of a quiet quiz is exact.
+@Slf4j
+@Service
+public class AnalyticsRebuild {
+
+    private final int chunkSize;
+    private final AtomicReference<AnalyticsRebuildStatus> status = new AtomicReference<>(AnalyticsRebuildStatus.idle());
+    private ExecutorService executor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuestionAnalytics questionAnalytics;
+
+    @Autowired
+    private GradingEngine gradingEngine;
+
+    public AnalyticsRebuild(@Value("${question-analytics.rebuild-chunk-size:500}") int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "question-analytics-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public AnalyticsRebuildStatus start(Long quizId) {
+        AnalyticsRebuildStatus current = status.get();
+        AnalyticsRebuildStatus running = AnalyticsRebuildStatus.running(quizId);
+        if (current.getState() == AnalyticsRebuildStatus.State.RUNNING || !status.compareAndSet(current, running)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A rebuild is already running");
+        }
+        executor.execute(() -> run(quizId));
+        return running;
+    }
+
+    public AnalyticsRebuildStatus getStatus() {
+        return status.get();
+    }
+
+    private void run(Long quizId) {
+        try {
+            Map<QuestionOptionStats.Key, OptionCounters> totals = new HashMap<>();
+            Map<Long, Long> invalid = new HashMap<>();
+            Map<Long, Map<Long, Integer>> optionCounts = new HashMap<>();
+            long scanned = 0;
+            long afterId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Long> ids = nextIds(quizId, afterId);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                fold(quizId, ids.get(0), ids.get(ids.size() - 1), optionCounts, totals, invalid);
+                scanned += ids.size();
+                afterId = ids.get(ids.size() - 1);
+                long progress = scanned;
+                status.updateAndGet(current -> current.scanned(progress));
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                status.updateAndGet(current -> current.failed("Interrupted"));
+                return;
+            }
+            questionAnalytics.replace(quizId, totals, invalid);
+            status.updateAndGet(AnalyticsRebuildStatus::completed);
+            log.info("Rebuilt question analytics for {} from {} attempts",
+                    quizId == null ? "all quizzes" : "quiz " + quizId, scanned);
+        } catch (RuntimeException e) {
+            log.error("Question analytics rebuild failed", e);
+            status.updateAndGet(current -> current.failed(e.getMessage()));
+        }
+    }
+
+    private List<Long> nextIds(Long quizId, long afterId) {
+        if (quizId == null) {
+            return jdbcTemplate.queryForList(
+                    "select id from quiz_summary where id > ? order by id limit ?", Long.class, afterId, chunkSize);
+        }
+        return jdbcTemplate.queryForList(
+                "select id from quiz_summary where quiz_id = ? and id > ? order by id limit ?",
+                Long.class, quizId, afterId, chunkSize);
+    }
+
+    // Every attempt in [firstId, lastId] that matches the filter belongs to the chunk, so a range covers it.
+    // Answers are checked against the quiz's current questions, as QuestionAnalytics checks new ones.
+    private void fold(Long quizId, long firstId, long lastId, Map<Long, Map<Long, Integer>> optionCounts,
+                      Map<QuestionOptionStats.Key, OptionCounters> totals, Map<Long, Long> invalid) {
+        String sql = "select s.quiz_id, s.score, a.question_id, a.selected_option_index, a.is_correct " +
+                "from quiz_summary s join quiz_question_summaries a on a.quiz_summary_id = s.id " +
+                "where s.id between ? and ?" + (quizId == null ? "" : " and s.quiz_id = ?");
+        Object[] args = quizId == null ? new Object[] {firstId, lastId} : new Object[] {firstId, lastId, quizId};
+        jdbcTemplate.query(sql, rs -> {
+            Long summaryQuizId = rs.getLong("quiz_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            long questionId = rs.getLong("question_id");
+            Integer optionCount = rs.wasNull() ? null
+                    : optionCounts.computeIfAbsent(summaryQuizId, gradingEngine::optionCounts).get(questionId);
+            int optionIndex = rs.getInt("selected_option_index");
+            if (rs.wasNull()) {
+                optionIndex = -1;
+            } else if (optionIndex < 0) {
+                optionCount = null;
+            }
+            if (optionCount == null || optionIndex >= optionCount) {
+                invalid.merge(summaryQuizId, 1L, Long::sum);
+                return;
+            }
+            totals.computeIfAbsent(new QuestionOptionStats.Key(questionId, optionIndex),
+                    key -> new OptionCounters(summaryQuizId)).add(rs.getBoolean("is_correct"), rs.getInt("score"));
+        }, args);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.service.analytics;
+
+// Answer counts for one (question, option) pair. Only held for a few field updates, never across I/O.
+class OptionCounters {
+
+    private final Long quizId;
+    private long selections;
+    private long correctSelections;
+    private long scoreSum;
+    private long scoreSquareSum;
+    private long correctScoreSum;
+
+    OptionCounters(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    Long quizId() {
+        return quizId;
+    }
+
+    synchronized void add(boolean correct, int score) {
+        selections++;
+        scoreSum += score;
+        scoreSquareSum += (long) score * score;
+        if (correct) {
+            correctSelections++;
+            correctScoreSum += score;
+        }
+    }
+
+    // Returns the counts and resets them, or null when nothing was counted since the last drain
+    synchronized long[] drain() {
+        if (selections == 0) {
+            return null;
+        }
+        long[] counts = {selections, correctSelections, scoreSum, scoreSquareSum, correctScoreSum};
+        selections = 0;
+        correctSelections = 0;
+        scoreSum = 0;
+        scoreSquareSum = 0;
+        correctScoreSum = 0;
+        return counts;
+    }
+
+    // Puts back counts that were drained but could not be written
+    synchronized void restore(long[] counts) {
+        selections += counts[0];
+        correctSelections += counts[1];
+        scoreSum += counts[2];
+        scoreSquareSum += counts[3];
+        correctScoreSum += counts[4];
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.demo.service.analytics;
+
+import com.example.demo.dto.QuestionItemAnalysis;
+import com.example.demo.dto.QuizItemAnalysis;
+import com.example.demo.entity.QuestionOptionStats;
+import com.example.demo.entity.QuizSummary;
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.example.demo.repository.QuestionOptionStatsRepository;
+import com.example.demo.service.grading.GradingEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Item analysis per quiz question. Graded answers are counted in memory once their transaction commits and
+// added to question_option_stats every flush interval; AnalyticsRebuild recomputes the table from the answers.
+// Only answers to a question of the quiz with no option or one of its options get a row. The rest, whatever
+// question id or option index the client sent, add to one counter per quiz in quiz_invalid_answers.
+@Slf4j
+@Service
+public class QuestionAnalytics {
+
+    private static final String UPSERT =
+            "insert into question_option_stats (question_id, option_index, quiz_id, selections, correct_selections, " +
+            "score_sum, score_square_sum, correct_score_sum) values (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "on duplicate key update selections = selections + ?, correct_selections = correct_selections + ?, " +
+            "score_sum = score_sum + ?, score_square_sum = score_square_sum + ?, correct_score_sum = correct_score_sum + ?";
+    private static final String UPSERT_INVALID =
+            "insert into quiz_invalid_answers (quiz_id, answers) values (?, ?) " +
+            "on duplicate key update answers = answers + ?";
+
+    private final Duration flushInterval;
+    private final Map<QuestionOptionStats.Key, OptionCounters> pending = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> pendingInvalid = new ConcurrentHashMap<>();
+    // Flushes and rebuilds write the table one at a time; a lock rather than synchronized as it is held across JDBC
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuestionOptionStatsRepository questionOptionStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GradingEngine gradingEngine;
+
+    private TransactionTemplate transactionTemplate;
+
+    public QuestionAnalytics(@Value("${question-analytics.flush-interval:10s}") Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "question-analytics-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(30, TimeUnit.SECONDS);
+        flushQuietly();
+    }
+
+    // The answers are copied now and counted after commit, so a rolled back submission is never counted
+    public void recordAfterCommit(QuizSummary summary) {
+        if (summary.getQuiz() == null || summary.getQuestionSummaries() == null) {
+            return;
+        }
+        Long quizId = summary.getQuiz().getId();
+        int score = summary.getScore();
+        // The answer key the submission was just graded with, so this is a cache hit
+        Map<Long, Integer> optionCounts = gradingEngine.optionCounts(quizId);
+        List<QuestionSummary> answers = summary.getQuestionSummaries();
+        List<QuestionOptionStats.Key> keys = new ArrayList<>(answers.size());
+        List<Boolean> correct = new ArrayList<>(answers.size());
+        int invalid = 0;
+        for (QuestionSummary answer : answers) {
+            Long questionId = answer.getQuestion() == null ? null : answer.getQuestion().getId();
+            Integer optionIndex = answer.getSelectedOptionIndex();
+            Integer optionCount = questionId == null ? null : optionCounts.get(questionId);
+            if (optionCount == null || optionIndex != null && (optionIndex < 0 || optionIndex >= optionCount)) {
+                invalid++;
+                continue;
+            }
+            keys.add(new QuestionOptionStats.Key(questionId, optionIndex == null ? -1 : optionIndex));
+            correct.add(answer.isCorrect());
+        }
+        int invalidAnswers = invalid;
+        Runnable count = () -> {
+            for (int i = 0; i < keys.size(); i++) {
+                pending.computeIfAbsent(keys.get(i), key -> new OptionCounters(quizId)).add(correct.get(i), score);
+            }
+            if (invalidAnswers > 0) {
+                pendingInvalid.computeIfAbsent(quizId, key -> new AtomicLong()).addAndGet(invalidAnswers);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    count.run();
+                }
+            });
+        } else {
+            count.run();
+        }
+    }
+
+    // Flushes first, so the analysis includes every answer committed so far
+    public QuizItemAnalysis analyze(Long quizId) {
+        Map<Long, Integer> optionCounts = gradingEngine.optionCounts(quizId);
+        flush();
+        List<QuestionOptionStats> rows = questionOptionStatsRepository.findByQuizIdOrderByQuestionIdAscOptionIndexAsc(quizId);
+        List<QuestionItemAnalysis> questions = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i == rows.size() || !rows.get(i).getQuestionId().equals(rows.get(start).getQuestionId())) {
+                Long questionId = rows.get(start).getQuestionId();
+                questions.add(analyze(rows.subList(start, i), optionCounts.getOrDefault(questionId, 0)));
+                start = i;
+            }
+        }
+        Long invalidAnswers = jdbcTemplate.query("select answers from quiz_invalid_answers where quiz_id = ?",
+                rs -> rs.next() ? rs.getLong(1) : 0L, quizId);
+        return new QuizItemAnalysis(quizId, questions, invalidAnswers);
+    }
+
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<QuestionOptionStats.Key> keys = new ArrayList<>();
+            List<long[]> drained = new ArrayList<>();
+            List<Object[]> rows = new ArrayList<>();
+            pending.forEach((key, counters) -> {
+                long[] counts = counters.drain();
+                if (counts != null) {
+                    keys.add(key);
+                    drained.add(counts);
+                    rows.add(upsertRow(key, counters.quizId(), counts));
+                }
+            });
+            Map<Long, Long> invalid = new HashMap<>();
+            pendingInvalid.forEach((quizId, answers) -> {
+                long drainedAnswers = answers.getAndSet(0);
+                if (drainedAnswers > 0) {
+                    invalid.put(quizId, drainedAnswers);
+                }
+            });
+            if (rows.isEmpty() && invalid.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    jdbcTemplate.batchUpdate(UPSERT, rows);
+                    jdbcTemplate.batchUpdate(UPSERT_INVALID, invalidRows(invalid));
+                });
+            } catch (RuntimeException e) {
+                for (int i = 0; i < keys.size(); i++) {
+                    pending.get(keys.get(i)).restore(drained.get(i));
+                }
+                invalid.forEach((quizId, answers) -> pendingInvalid.get(quizId).addAndGet(answers));
+                throw e;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Swaps in rebuilt totals for one quiz, or every quiz when quizId is null. Answers counted in memory
+    // meanwhile are added on top by the next flush.
+    void replace(Long quizId, Map<QuestionOptionStats.Key, OptionCounters> totals, Map<Long, Long> invalid) {
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, counters) -> {
+            long[] counts = counters.drain();
+            if (counts != null) {
+                rows.add(upsertRow(key, counters.quizId(), counts));
+            }
+        });
+        writeLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (quizId == null) {
+                    jdbcTemplate.update("delete from question_option_stats");
+                    jdbcTemplate.update("delete from quiz_invalid_answers");
+                } else {
+                    jdbcTemplate.update("delete from question_option_stats where quiz_id = ?", quizId);
+                    jdbcTemplate.update("delete from quiz_invalid_answers where quiz_id = ?", quizId);
+                }
+                jdbcTemplate.batchUpdate(UPSERT, rows);
+                jdbcTemplate.batchUpdate(UPSERT_INVALID, invalidRows(invalid));
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Question analytics flush failed, retrying next interval", e);
+        }
+    }
+
+    private static Object[] upsertRow(QuestionOptionStats.Key key, Long quizId, long[] counts) {
+        return new Object[] {
+                key.getQuestionId(), key.getOptionIndex(), quizId,
+                counts[0], counts[1], counts[2], counts[3], counts[4],
+                counts[0], counts[1], counts[2], counts[3], counts[4]
+        };
+    }
+
+    private static List<Object[]> invalidRows(Map<Long, Long> invalid) {
+        List<Object[]> rows = new ArrayList<>(invalid.size());
+        invalid.forEach((quizId, answers) -> rows.add(new Object[] {quizId, answers, answers}));
+        return rows;
+    }
+
+    // The distribution has one entry per option the question has now; counts for options removed since
+    // stay in the totals but are left out of it
+    private static QuestionItemAnalysis analyze(List<QuestionOptionStats> options, int optionCount) {
+        long answered = 0;
+        long unanswered = 0;
+        long correct = 0;
+        long scoreSum = 0;
+        long scoreSquareSum = 0;
+        long correctScoreSum = 0;
+        List<Long> selections = new ArrayList<>(Collections.nCopies(optionCount, 0L));
+        for (QuestionOptionStats option : options) {
+            answered += option.getSelections();
+            correct += option.getCorrectSelections();
+            scoreSum += option.getScoreSum();
+            scoreSquareSum += option.getScoreSquareSum();
+            correctScoreSum += option.getCorrectScoreSum();
+            if (option.getOptionIndex() < 0) {
+                unanswered += option.getSelections();
+                continue;
+            }
+            if (option.getOptionIndex() < optionCount) {
+                selections.set(option.getOptionIndex(), option.getSelections());
+            }
+        }
+        double percentCorrect = answered == 0 ? 0 : 100.0 * correct / answered;
+        return new QuestionItemAnalysis(options.get(0).getQuestionId(), answered, unanswered, correct, percentCorrect,
+                discrimination(answered, correct, scoreSum, scoreSquareSum, correctScoreSum), selections);
+    }
+
+    // Point-biserial correlation from running sums: (mean score of correct answers - mean score of the rest)
+    // / standard deviation of scores * sqrt(p * (1 - p)), where p is the share answered correctly
+    private static Double discrimination(long answered, long correct, long scoreSum, long scoreSquareSum, long correctScoreSum) {
+        if (correct == 0 || correct == answered) {
+            return null;
+        }
+        double mean = (double) scoreSum / answered;
+        double variance = (double) scoreSquareSum / answered - mean * mean;
+        if (variance <= 0) {
+            return null;
+        }
+        double correctMean = (double) correctScoreSum / correct;
+        double otherMean = (double) (scoreSum - correctScoreSum) / (answered - correct);
+        double p = (double) correct / answered;
+        return (correctMean - otherMean) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.demo.service.editing;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.entity.Question;
+import com.example.demo.entity.Quiz;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.Getter;
+import org.hibernate.query.NativeQuery;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Applies an edited course onto the stored one, matching lessons and questions by id and writing only what
+// differs: changed fields update their row, lessons and questions without an id are inserted, and ones left out
+// are deleted. Kept lessons and questions keep their ids, so progress and recorded answers stay attached.
+// Quizzes are matched by their place (introductory, final, a lesson's quiz) rather than by id.
+// Links in the course_lessons and quiz_questions join tables are added and removed row by row with SQL; changing
+// the mapped lists would make Hibernate delete and re-insert every link of the course or quiz.
+@Service
+public class CourseEditor {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Getter
+    public static class Result {
+        private boolean lessonsAdded;
+        private boolean lessonsRemoved;
+    }
+
+    // Joins the caller's transaction. The persistence context is cleared at the end, as the mapped lesson and
+    // question lists no longer match the join tables, so callers reload the course afterwards.
+    public Result apply(Course course, Course desired) {
+        Edit edit = new Edit(course.getId());
+        setIfChanged(course.getName(), desired.getName(), course::setName);
+        setIfChanged(course.getDescription(), desired.getDescription(), course::setDescription);
+        setIfChanged(course.getImageUrl(), desired.getImageUrl(), course::setImageUrl);
+        course.setIntroductoryQuiz(syncQuiz(course.getIntroductoryQuiz(), desired.getIntroductoryQuiz(), edit));
+        course.setFinalQuiz(syncQuiz(course.getFinalQuiz(), desired.getFinalQuiz(), edit));
+        syncLessons(course, desired.getLessons(), edit);
+
+        // Updates and inserts first, so nothing deleted below is still referenced by a row
+        entityManager.flush();
+        edit.write();
+        entityManager.clear();
+        return edit.result;
+    }
+
+    private void syncLessons(Course course, List<Lesson> desiredLessons, Edit edit) {
+        Map<Long, Lesson> current = new LinkedHashMap<>();
+        if (course.getLessons() != null) {
+            course.getLessons().forEach(lesson -> current.put(lesson.getId(), lesson));
+        }
+        Set<Long> kept = new HashSet<>();
+        for (Lesson desired : desiredLessons == null ? List.<Lesson>of() : desiredLessons) {
+            if (desired.getId() == null) {
+                desired.setQuiz(newQuiz(desired.getQuiz()));
+                entityManager.persist(desired);
+                edit.addedLessons.add(desired.getId());
+                continue;
+            }
+            Lesson lesson = current.get(desired.getId());
+            if (lesson == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Lesson " + desired.getId() + " is not part of course " + course.getId());
+            }
+            if (!kept.add(lesson.getId())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lesson " + lesson.getId() + " is listed twice");
+            }
+            setIfChanged(lesson.getName(), desired.getName(), lesson::setName);
+            setIfChanged(lesson.getDescription(), desired.getDescription(), lesson::setDescription);
+            setIfChanged(lesson.getYoutubeVideoLink(), desired.getYoutubeVideoLink(), lesson::setYoutubeVideoLink);
+            setIfChanged(lesson.getDifficultyLevel(), desired.getDifficultyLevel(), lesson::setDifficultyLevel);
+            lesson.setQuiz(syncQuiz(lesson.getQuiz(), desired.getQuiz(), edit));
+        }
+        current.values().stream()
+                .filter(lesson -> !kept.contains(lesson.getId()))
+                .forEach(lesson -> {
+                    edit.removedLessons.add(lesson.getId());
+                    if (lesson.getQuiz() != null) {
+                        edit.removedQuizzes.add(lesson.getQuiz().getId());
+                    }
+                });
+    }
+
+    // Returns the quiz that belongs in the place after the edit
+    private Quiz syncQuiz(Quiz quiz, Quiz desired, Edit edit) {
+        if (desired == null) {
+            if (quiz != null) {
+                edit.removedQuizzes.add(quiz.getId());
+            }
+            return null;
+        }
+        if (quiz == null) {
+            return newQuiz(desired);
+        }
+        setIfChanged(quiz.getName(), desired.getName(), quiz::setName);
+        syncQuestions(quiz, desired.getQuestions(), edit);
+        return quiz;
+    }
+
+    private void syncQuestions(Quiz quiz, List<Question> desiredQuestions, Edit edit) {
+        Map<Long, Question> current = new LinkedHashMap<>();
+        if (quiz.getQuestions() != null) {
+            quiz.getQuestions().stream()
+                    .filter(Objects::nonNull)
+                    .forEach(question -> current.put(question.getId(), question));
+        }
+        Set<Long> kept = new HashSet<>();
+        for (Question desired : desiredQuestions == null ? List.<Question>of() : desiredQuestions) {
+            if (desired.getId() == null) {
+                desired.setQuiz(null);
+                entityManager.persist(desired);
+                edit.addedQuestions.computeIfAbsent(quiz.getId(), id -> new ArrayList<>()).add(desired.getId());
+                continue;
+            }
+            Question question = current.get(desired.getId());
+            if (question == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Question " + desired.getId() + " is not part of quiz " + quiz.getId());
+            }
+            if (!kept.add(question.getId())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Question " + question.getId() + " is listed twice");
+            }
+            setIfChanged(question.getName(), desired.getName(), question::setName);
+            // Options have no id of their own: a changed list replaces the question's options
+            if (!sameOptions(question.getOptions(), desired.getOptions())) {
+                question.setOptions(desired.getOptions() == null ? new ArrayList<>() : new ArrayList<>(desired.getOptions()));
+            }
+        }
+        current.keySet().stream()
+                .filter(id -> !kept.contains(id))
+                .forEach(id -> edit.removedQuestions.computeIfAbsent(quiz.getId(), quizId -> new ArrayList<>()).add(id));
+    }
+
+    // A quiz put where there was none is always inserted, whatever id it was sent with
+    private Quiz newQuiz(Quiz quiz) {
+        if (quiz == null) {
+            return null;
+        }
+        quiz.setId(null);
+        quiz.setQuizSummaries(null);
+        if (quiz.getQuestions() != null) {
+            quiz.getQuestions().stream()
+                    .filter(Objects::nonNull)
+                    .forEach(question -> {
+                        question.setId(null);
+                        question.setQuiz(null);
+                    });
+        }
+        entityManager.persist(quiz);
+        return quiz;
+    }
+
+    private static boolean sameOptions(List<Question.Option> current, List<Question.Option> desired) {
+        List<Question.Option> left = current == null ? List.of() : current;
+        List<Question.Option> right = desired == null ? List.of() : desired;
+        if (left.size() != right.size()) {
+            return false;
+        }
+        for (int i = 0; i < left.size(); i++) {
+            if (!Objects.equals(left.get(i).getText(), right.get(i).getText())
+                    || left.get(i).isCorrect() != right.get(i).isCorrect()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> void setIfChanged(T current, T desired, Consumer<T> setter) {
+        if (!Objects.equals(current, desired)) {
+            setter.accept(desired);
+        }
+    }
+
+    // Join table links and deletions collected while diffing, written once the entity changes are flushed
+    private class Edit {
+        private final Long courseId;
+        private final Result result = new Result();
+        private final List<Long> addedLessons = new ArrayList<>();
+        private final List<Long> removedLessons = new ArrayList<>();
+        private final Map<Long, List<Long>> addedQuestions = new HashMap<>();
+        private final Map<Long, List<Long>> removedQuestions = new HashMap<>();
+        private final List<Long> removedQuizzes = new ArrayList<>();
+
+        Edit(Long courseId) {
+            this.courseId = courseId;
+        }
+
+        void write() {
+            for (Long lessonId : addedLessons) {
+                execute("course_lessons", "insert into course_lessons (course_id, lessons_id) values (:courseId, :id)",
+                        Map.of("courseId", courseId, "id", lessonId));
+            }
+            addedQuestions.forEach((quizId, questionIds) -> questionIds.forEach(questionId ->
+                    execute("quiz_questions", "insert into quiz_questions (quiz_id, questions_id) values (:quizId, :id)",
+                            Map.of("quizId", quizId, "id", questionId))));
+
+            removedQuestions.forEach((quizId, questionIds) -> {
+                execute("quiz_questions", "delete from quiz_questions where quiz_id = :quizId and questions_id in (:ids)",
+                        Map.of("quizId", quizId, "ids", questionIds));
+                // Answered questions stay, unlinked, so recorded answers keep pointing at them
+                deleteQuestions(questionIds.stream()
+                        .filter(id -> !exists("select quiz_summary_id from quiz_question_summaries where question_id = :id", id))
+                        .toList());
+            });
+
+            if (!removedLessons.isEmpty()) {
+                Map<String, Object> lessons = Map.of("ids", removedLessons);
+                execute("progress_completed_lessons", "delete from progress_completed_lessons where lesson_id in (:ids)", lessons);
+                execute("course_lessons", "delete from course_lessons where course_id = :courseId and lessons_id in (:ids)",
+                        Map.of("courseId", courseId, "ids", removedLessons));
+                execute("lesson", "delete from lesson where id in (:ids)", lessons);
+            }
+
+            // Quizzes with attempts stay, unlinked, so attempt history keeps its quiz
+            for (Long quizId : removedQuizzes) {
+                if (exists("select id from quiz_summary where quiz_id = :id", quizId)) {
+                    continue;
+                }
+                List<Long> questionIds = select("select questions_id from quiz_questions where quiz_id = :id " +
+                        "union select id from question where quiz_id = :id", quizId);
+                execute("quiz_questions", "delete from quiz_questions where quiz_id = :id", Map.of("id", quizId));
+                deleteQuestions(questionIds);
+                execute("quiz", "delete from quiz where id = :id", Map.of("id", quizId));
+            }
+            result.lessonsAdded = !addedLessons.isEmpty();
+            result.lessonsRemoved = !removedLessons.isEmpty();
+        }
+
+        private void deleteQuestions(List<Long> questionIds) {
+            if (questionIds.isEmpty()) {
+                return;
+            }
+            Map<String, Object> questions = Map.of("ids", questionIds);
+            execute("question_options", "delete from question_options where question_id in (:ids)", questions);
+            execute("question", "delete from question where id in (:ids)", questions);
+        }
+
+        private boolean exists(String sql, Long id) {
+            return !entityManager.createNativeQuery(sql).setParameter("id", id).setMaxResults(1).getResultList().isEmpty();
+        }
+
+        private List<Long> select(String sql, Long id) {
+            List<?> rows = entityManager.createNativeQuery(sql).setParameter("id", id).getResultList();
+            return rows.stream().map(row -> ((Number) row).longValue()).toList();
+        }
+
+        // With the table as query space, Hibernate drops cached entities, collections and queries that read it
+        private void execute(String table, String sql, Map<String, Object> parameters) {
+            NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+            query.addSynchronizedQuerySpace(table);
+            parameters.forEach(query::setParameter);
+            query.executeUpdate();
+        }
+    }
+}
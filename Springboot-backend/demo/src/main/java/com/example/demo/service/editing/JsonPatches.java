@@ -0,0 +1,176 @@
+package com.example.demo.service.editing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// JSON Merge Patch (RFC 7386) and JSON Patch (RFC 6902) over Jackson trees. Both leave the target untouched
+// and return the patched copy. As RFC 5789 asks, a malformed patch is a 400 and a patch that does not fit the
+// document, such as a path that is not there or a failed test, is a 409.
+public final class JsonPatches {
+
+    // Ids read back from entities are longs and patch numbers usually ints, so numbers compare by value
+    private static final Comparator<JsonNode> SAME_VALUE = (left, right) ->
+            left.equals(right) || left.isNumber() && right.isNumber()
+                    && left.decimalValue().compareTo(right.decimalValue()) == 0 ? 0 : 1;
+
+    private JsonPatches() {
+    }
+
+    // Objects merge key by key and a null removes the key; anything else, arrays included, replaces the target
+    public static JsonNode merge(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+        ObjectNode result = target != null && target.isObject()
+                ? ((ObjectNode) target).deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        patch.fields().forEachRemaining(field -> {
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), merge(result.get(field.getKey()), field.getValue()));
+            }
+        });
+        return result;
+    }
+
+    // Runs the operations in order; any failed operation rejects the whole patch
+    public static JsonNode apply(JsonNode target, JsonNode operations) {
+        if (!operations.isArray()) {
+            throw invalid("A JSON Patch is an array of operations");
+        }
+        JsonNode document = target.deepCopy();
+        for (JsonNode operation : operations) {
+            String path = text(operation, "path");
+            switch (text(operation, "op")) {
+                case "add" -> document = add(document, path, value(operation));
+                case "remove" -> document = remove(document, path);
+                case "replace" -> document = path.isEmpty()
+                        ? value(operation)
+                        : add(remove(document, path), path, value(operation));
+                case "move" -> {
+                    String from = text(operation, "from");
+                    JsonNode moved = get(document, from);
+                    document = remove(document, from);
+                    document = add(document, path, moved);
+                }
+                case "copy" -> document = add(document, path, get(document, text(operation, "from")).deepCopy());
+                case "test" -> {
+                    if (!get(document, path).equals(SAME_VALUE, value(operation))) {
+                        throw conflict("JSON Patch test failed at " + path);
+                    }
+                }
+                default -> throw invalid("Unknown JSON Patch operation " + operation.get("op"));
+            }
+        }
+        return document;
+    }
+
+    private static JsonNode add(JsonNode document, String path, JsonNode value) {
+        List<String> tokens = tokens(path);
+        if (tokens.isEmpty()) {
+            return value;
+        }
+        JsonNode parent = get(document, tokens.subList(0, tokens.size() - 1), path);
+        String last = tokens.get(tokens.size() - 1);
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(last, value);
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            array.insert("-".equals(last) ? array.size() : index(last, array.size() + 1, path), value);
+        } else {
+            throw conflict("No object or array at " + path);
+        }
+        return document;
+    }
+
+    private static JsonNode remove(JsonNode document, String path) {
+        List<String> tokens = tokens(path);
+        if (tokens.isEmpty()) {
+            throw conflict("The whole document cannot be removed");
+        }
+        JsonNode parent = get(document, tokens.subList(0, tokens.size() - 1), path);
+        String last = tokens.get(tokens.size() - 1);
+        if (parent.isObject() && parent.has(last)) {
+            ((ObjectNode) parent).remove(last);
+        } else if (parent.isArray()) {
+            ((ArrayNode) parent).remove(index(last, parent.size(), path));
+        } else {
+            throw conflict("No value at " + path);
+        }
+        return document;
+    }
+
+    private static JsonNode get(JsonNode document, String path) {
+        return get(document, tokens(path), path);
+    }
+
+    private static JsonNode get(JsonNode document, List<String> tokens, String path) {
+        JsonNode node = document;
+        for (String token : tokens) {
+            node = node.isArray() ? node.get(index(token, node.size(), path)) : node.get(token);
+            if (node == null) {
+                throw conflict("No value at " + path);
+            }
+        }
+        return node;
+    }
+
+    // JSON Pointer (RFC 6901): "" is the whole document, "~1" stands for "/" and "~0" for "~"
+    private static List<String> tokens(String path) {
+        if (path.isEmpty()) {
+            return List.of();
+        }
+        if (!path.startsWith("/")) {
+            throw invalid("Invalid JSON Pointer " + path);
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : path.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static int index(String token, int size, String path) {
+        try {
+            int index = Integer.parseInt(token);
+            if (index >= 0 && index < size) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw conflict("Invalid array index in " + path);
+    }
+
+    private static String text(JsonNode operation, String field) {
+        JsonNode value = operation.get(field);
+        if (value == null || !value.isTextual()) {
+            throw invalid("JSON Patch operation without \"" + field + "\": " + operation);
+        }
+        return value.asText();
+    }
+
+    private static JsonNode value(JsonNode operation) {
+        if (!operation.has("value")) {
+            throw invalid("JSON Patch operation without \"value\": " + operation);
+        }
+        return operation.get("value");
+    }
+
+    private static ResponseStatusException invalid(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+
+    private static ResponseStatusException conflict(String reason) {
+        return new ResponseStatusException(HttpStatus.CONFLICT, reason);
+    }
+}
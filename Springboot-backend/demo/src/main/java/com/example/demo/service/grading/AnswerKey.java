@@ -0,0 +1,42 @@
+package com.example.demo.service.grading;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Immutable answer key of one quiz: question ids sorted ascending, and for each the indexes of its
+// correct options packed into a bitmask (bit i set = option i is correct)
+final class AnswerKey {
+
+    private final long[] questionIds;
+    private final int[] correctOptions;
+    private final Map<Long, Integer> optionCounts;
+
+    AnswerKey(long[] questionIds, int[] correctOptions, int[] optionCounts) {
+        this.questionIds = questionIds;
+        this.correctOptions = correctOptions;
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < questionIds.length; i++) {
+            counts.put(questionIds[i], optionCounts[i]);
+        }
+        this.optionCounts = Map.copyOf(counts);
+    }
+
+    int questionCount() {
+        return questionIds.length;
+    }
+
+    // Position of the question in this key, or a negative number if the quiz has no such question
+    int indexOf(long questionId) {
+        return Arrays.binarySearch(questionIds, questionId);
+    }
+
+    Map<Long, Integer> optionCounts() {
+        return optionCounts;
+    }
+
+    boolean isCorrect(int questionIndex, int optionIndex) {
+        return optionIndex >= 0 && optionIndex < Integer.SIZE
+                && (correctOptions[questionIndex] & (1 << optionIndex)) != 0;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.service.grading;
+
+import com.example.demo.cache.EvictionStamps;
+import com.example.demo.dto.GradeResult;
+import com.example.demo.entity.Question;
+import com.example.demo.entity.Quiz;
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.example.demo.repository.QuestionRepository;
+import com.example.demo.repository.QuizRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Grades quiz answers on the server against compiled answer keys instead of trusting client isCorrect flags.
+// Keys are compiled once per quiz from the (second-level cached) entities; grading itself loads nothing.
+@Service
+public class GradingEngine {
+
+    private final Cache<Long, AnswerKey> answerKeys;
+    private final EvictionStamps evictions = new EvictionStamps();
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    public GradingEngine(@Value("${grading.answer-key-cache-size:10000}") long maximumSize) {
+        this.answerKeys = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    // Marks each answer correct or not and returns the score over all of the quiz's questions,
+    // so unanswered and repeated questions cannot raise it
+    public GradeResult grade(Long quizId, List<QuestionSummary> answers) {
+        return grade(answerKey(quizId), answers);
+    }
+
+    public List<GradeResult> gradeAll(Long quizId, List<List<QuestionSummary>> submissions) {
+        AnswerKey key = answerKey(quizId);
+        return submissions.stream()
+                .map(answers -> grade(key, answers))
+                .toList();
+    }
+
+    // Number of options of each of the quiz's questions, by question id; answers to any other question
+    // or outside these options were not matched to the quiz
+    public Map<Long, Integer> optionCounts(Long quizId) {
+        return answerKey(quizId).optionCounts();
+    }
+
+    public void evict(Collection<Long> quizIds) {
+        evictions.evictAll(answerKeys, quizIds);
+    }
+
+    private GradeResult grade(AnswerKey key, List<QuestionSummary> answers) {
+        boolean[] answered = new boolean[key.questionCount()];
+        boolean[] correct = new boolean[answers.size()];
+        int correctAnswers = 0;
+        for (int i = 0; i < answers.size(); i++) {
+            QuestionSummary answer = answers.get(i);
+            Question question = answer.getQuestion();
+            Integer selected = answer.getSelectedOptionIndex();
+            int index = question == null || question.getId() == null ? -1 : key.indexOf(question.getId());
+            correct[i] = index >= 0 && selected != null && key.isCorrect(index, selected);
+            answer.setCorrect(correct[i]);
+            if (correct[i] && !answered[index]) {
+                correctAnswers++;
+            }
+            if (index >= 0) {
+                answered[index] = true;
+            }
+        }
+        int total = key.questionCount();
+        int score = total == 0 ? 0 : (int) ((double) correctAnswers / total * 100);
+        return new GradeResult(score, correctAnswers, total, correct);
+    }
+
+    private AnswerKey answerKey(Long quizId) {
+        AnswerKey key = answerKeys.getIfPresent(quizId);
+        if (key == null) {
+            // Compiled outside the cache lock, like the content cache, so a slow load does not block other quizzes;
+            // a key compiled while the quiz was evicted is used for this submission but not cached
+            long stamp = evictions.stamp(quizId);
+            key = compile(quizId);
+            evictions.putIfNotEvicted(answerKeys, quizId, key, stamp);
+        }
+        return key;
+    }
+
+    private AnswerKey compile(Long quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz not found"));
+        List<Question> questions = quizRepository.fetchQuestions(List.of(quiz)).get(0).getQuestions();
+        if (!questions.isEmpty()) {
+            questionRepository.fetchOptions(questions);
+        }
+        List<Question> sorted = questions.stream()
+                .sorted(Comparator.comparing(Question::getId))
+                .toList();
+        long[] questionIds = new long[sorted.size()];
+        int[] correctOptions = new int[sorted.size()];
+        int[] optionCounts = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            Question question = sorted.get(i);
+            questionIds[i] = question.getId();
+            List<Question.Option> options = question.getOptions();
+            optionCounts[i] = options.size();
+            for (int o = 0; o < options.size() && o < Integer.SIZE; o++) {
+                if (options.get(o).isCorrect()) {
+                    correctOptions[i] |= 1 << o;
+                }
+            }
+        }
+        return new AnswerKey(questionIds, correctOptions, optionCounts);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.service.ingestion;
+
+import com.example.demo.entity.IdempotencyKey;
+import com.example.demo.entity.QuizSummary;
+import com.example.demo.repository.IdempotencyKeyRepository;
+import com.example.demo.repository.QuizSummaryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Runs a quiz submission at most once per (user, Idempotency-Key). Retries, double clicks and other tabs
+// that repeat a key get the quiz summary stored by the first run instead of a second attempt.
+@Service
+public class IdempotentSubmissions {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private QuizSummaryRepository quizSummaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Runs the submission in its own transaction; a null key means no deduplication
+    public QuizSummary submit(Long userId, String key, Supplier<QuizSummary> submission) {
+        validate(key);
+        if (key != null) {
+            Optional<QuizSummary> previous = findResult(userId, key);
+            if (previous.isPresent()) {
+                return previous.get();
+            }
+        }
+        try {
+            return transactionTemplate.execute(tx -> runOnce(userId, key, submission));
+        } catch (DataIntegrityViolationException | ConstraintViolationException e) {
+            if (key == null) {
+                throw e;
+            }
+            // A concurrent request with the same key committed first
+            return findResult(userId, key).orElseThrow(() -> new ResponseStatusException(
+                    HttpStatus.CONFLICT, "A submission with this Idempotency-Key is still being processed"));
+        }
+    }
+
+    // Joins the caller's transaction. The key row is inserted before the submission runs, so a concurrent
+    // duplicate blocks on it and then fails with a constraint violation once this transaction commits.
+    QuizSummary runOnce(Long userId, String key, Supplier<QuizSummary> submission) {
+        if (key == null) {
+            return submission.get();
+        }
+        IdempotencyKey claim = new IdempotencyKey();
+        claim.setId(id(userId, key));
+        claim.setUserId(userId);
+        claim.setCreatedAt(Instant.now());
+        entityManager.persist(claim);
+        entityManager.flush();
+        QuizSummary summary = submission.get();
+        claim.setQuizSummaryId(summary.getId());
+        return summary;
+    }
+
+    void validate(String key) {
+        if (key != null && (key.isBlank() || key.length() > MAX_KEY_LENGTH)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    Optional<QuizSummary> findResult(Long userId, String key) {
+        return idempotencyKeyRepository.findById(id(userId, key))
+                .map(IdempotencyKey::getQuizSummaryId)
+                .flatMap(quizSummaryRepository::findById);
+    }
+
+    private static String id(Long userId, String key) {
+        return userId + ":" + key;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.service.ingestion;
+
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+class QuizSubmission {
+
+    enum Kind {
+        INTRO, FINAL, LESSON
+    }
+
+    private final String id;
+    private final Kind kind;
+    private final Long userId;
+    private final Long courseId;
+    // Only set for lesson quizzes
+    private final Long lessonId;
+    private final List<QuestionSummary> questionSummaries;
+    // Client Idempotency-Key, or null
+    private final String idempotencyKey;
+}
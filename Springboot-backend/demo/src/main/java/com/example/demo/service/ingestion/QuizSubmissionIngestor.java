@@ -0,0 +1,223 @@
+package com.example.demo.service.ingestion;
+
+import com.example.demo.dto.QuizSubmissionStatus;
+import com.example.demo.entity.QuizSummary;
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.example.demo.service.UserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Accepts quiz submissions into bounded queues and writes them in groups, one transaction per group.
+// Each user always maps to the same queue and worker, so a user's submissions are applied in order.
+@Slf4j
+@Service
+public class QuizSubmissionIngestor {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final int workers;
+    private final int batchSize;
+    private final List<BlockingQueue<QuizSubmission>> queues = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final Cache<String, QuizSubmissionStatus> statuses;
+    // "<userId>:<Idempotency-Key>" -> submission id, so a repeated key returns the queued submission
+    private final Cache<String, String> submissionsByKey;
+    private volatile boolean running = true;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private IdempotentSubmissions idempotentSubmissions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    public QuizSubmissionIngestor(
+            @Value("${quiz-ingestion.workers:2}") int workers,
+            @Value("${quiz-ingestion.queue-capacity:5000}") int queueCapacity,
+            @Value("${quiz-ingestion.batch-size:100}") int batchSize,
+            @Value("${quiz-ingestion.status-retention:1h}") Duration statusRetention) {
+        this.workers = workers;
+        this.batchSize = batchSize;
+        for (int i = 0; i < workers; i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusRetention)
+                .build();
+        this.submissionsByKey = Caffeine.newBuilder()
+                .expireAfterWrite(statusRetention)
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<QuizSubmission> queue = queues.get(i);
+            Thread thread = new Thread(() -> drain(queue), "quiz-ingest-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    // Lets the workers flush what is already queued before the context closes
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    public QuizSubmissionStatus submitIntroQuiz(Long userId, Long courseId, String idempotencyKey,
+                                                List<QuestionSummary> questionSummaries) {
+        return enqueue(QuizSubmission.Kind.INTRO, userId, courseId, null, idempotencyKey, questionSummaries);
+    }
+
+    public QuizSubmissionStatus submitFinalQuiz(Long userId, Long courseId, String idempotencyKey,
+                                                List<QuestionSummary> questionSummaries) {
+        return enqueue(QuizSubmission.Kind.FINAL, userId, courseId, null, idempotencyKey, questionSummaries);
+    }
+
+    public QuizSubmissionStatus submitLessonQuiz(Long userId, Long courseId, Long lessonId, String idempotencyKey,
+                                                 List<QuestionSummary> questionSummaries) {
+        return enqueue(QuizSubmission.Kind.LESSON, userId, courseId, lessonId, idempotencyKey, questionSummaries);
+    }
+
+    public QuizSubmissionStatus getStatus(Long userId, String submissionId) {
+        QuizSubmissionStatus status = statuses.getIfPresent(submissionId);
+        if (status == null || !status.getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz submission not found");
+        }
+        return status;
+    }
+
+    private QuizSubmissionStatus enqueue(QuizSubmission.Kind kind, Long userId, Long courseId, Long lessonId,
+                                         String idempotencyKey, List<QuestionSummary> questionSummaries) {
+        if (questionSummaries == null || questionSummaries.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid quiz submission: no answers");
+        }
+        idempotentSubmissions.validate(idempotencyKey);
+        String submissionId = UUID.randomUUID().toString();
+        QuizSubmissionStatus status = QuizSubmissionStatus.queued(submissionId, userId);
+        statuses.put(submissionId, status);
+        String keyId = idempotencyKey == null ? null : userId + ":" + idempotencyKey;
+        if (keyId != null) {
+            String existingId = submissionsByKey.asMap().putIfAbsent(keyId, submissionId);
+            QuizSubmissionStatus existing = existingId == null ? null : statuses.getIfPresent(existingId);
+            if (existing != null) {
+                statuses.invalidate(submissionId);
+                return existing;
+            }
+            // The key outlived its status; the database still stops a second write
+            submissionsByKey.put(keyId, submissionId);
+        }
+        QuizSubmission submission = new QuizSubmission(
+                submissionId, kind, userId, courseId, lessonId, questionSummaries, idempotencyKey);
+        if (!running || !queueOf(userId).offer(submission)) {
+            statuses.invalidate(submissionId);
+            if (keyId != null) {
+                submissionsByKey.asMap().remove(keyId, submissionId);
+            }
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Quiz submission queue is full, retry later");
+        }
+        return status;
+    }
+
+    private BlockingQueue<QuizSubmission> queueOf(Long userId) {
+        return queues.get(Math.floorMod(userId.hashCode(), workers));
+    }
+
+    private void drain(BlockingQueue<QuizSubmission> queue) {
+        List<QuizSubmission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QuizSubmission first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Quiz submission batch failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<QuizSubmission> batch) {
+        List<QuizSummary> saved;
+        try {
+            saved = transactionTemplate.execute(tx -> batch.stream().map(this::applyOnce).toList());
+        } catch (RuntimeException e) {
+            // One bad submission rolls back its whole group; replay them one by one so only it fails
+            batch.forEach(this::writeAlone);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            markCommitted(batch.get(i), saved.get(i));
+        }
+    }
+
+    private void writeAlone(QuizSubmission submission) {
+        try {
+            markCommitted(submission, idempotentSubmissions.submit(
+                    submission.getUserId(), submission.getIdempotencyKey(), () -> apply(submission)));
+        } catch (RuntimeException e) {
+            String reason = e instanceof ResponseStatusException statusException
+                    ? statusException.getReason()
+                    : e.getMessage();
+            statuses.asMap().computeIfPresent(submission.getId(), (id, status) -> status.failed(reason));
+        }
+    }
+
+    // A key repeated inside one group fails the group, and the one-by-one replay then returns the first result
+    private QuizSummary applyOnce(QuizSubmission submission) {
+        return idempotentSubmissions.runOnce(
+                submission.getUserId(), submission.getIdempotencyKey(), () -> apply(submission));
+    }
+
+    private QuizSummary apply(QuizSubmission submission) {
+        return switch (submission.getKind()) {
+            case INTRO -> userService.addIntroQuizSummary(
+                    submission.getUserId(), submission.getCourseId(), submission.getQuestionSummaries());
+            case FINAL -> userService.addFinalQuizSummary(
+                    submission.getUserId(), submission.getCourseId(), submission.getQuestionSummaries());
+            case LESSON -> userService.addLessonQuizSummary(
+                    submission.getUserId(), submission.getCourseId(), submission.getLessonId(),
+                    submission.getQuestionSummaries());
+        };
+    }
+
+    private void markCommitted(QuizSubmission submission, QuizSummary summary) {
+        statuses.asMap().computeIfPresent(submission.getId(),
+                (id, status) -> status.committed(summary.getId(), summary.getScore()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.service.progress;
+
+import com.example.demo.cache.ContentCache;
+import com.example.demo.entity.Lesson;
+import com.example.demo.entity.Progress;
+import com.example.demo.repository.CourseRepository;
+import com.example.demo.repository.ProgressRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+// Answers lesson-completion questions from Progress.completedLessonBits and the lesson ordinals of the course,
+// which the content cache keeps per course until CourseService evicts it on a lesson change. Only a cache miss
+// reads course_lessons. Every write to completedLessons must go through markCompleted so the bitmap follows;
+// rows written before the bitmap existed are filled on first read.
+// The progress_counters row of each Progress is kept in step in the same transaction.
+@Service
+public class ProgressBitmaps {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private ProgressCounters progressCounters;
+
+    // Creates the counter row of a newly saved Progress
+    public void initialize(Progress progress) {
+        long[] ordinals = lessonOrdinals(progress);
+        progressCounters.record(progress, bits(progress, ordinals).cardinality(), ordinals.length);
+    }
+
+    public void markCompleted(Progress progress, Lesson lesson) {
+        long[] ordinals = lessonOrdinals(progress);
+        // Read before the lesson is added: a bitmap filled from completedLessons would already have its bit set
+        BitSet bits = bits(progress, ordinals);
+        progress.addCompletedLesson(lesson);
+        int ordinal = Arrays.binarySearch(ordinals, lesson.getId());
+        if (ordinal >= 0 && !bits.get(ordinal)) {
+            bits.set(ordinal);
+            progress.setCompletedLessonBits(bits.toByteArray());
+            progressCounters.record(progress, bits.cardinality(), ordinals.length);
+        }
+    }
+
+    public boolean isCompleted(Progress progress, Long lessonId) {
+        long[] ordinals = lessonOrdinals(progress);
+        int ordinal = Arrays.binarySearch(ordinals, lessonId);
+        return ordinal >= 0 && bits(progress, ordinals).get(ordinal);
+    }
+
+    public double percentComplete(Progress progress) {
+        long[] ordinals = lessonOrdinals(progress);
+        if (ordinals.length == 0) {
+            return 0.0;
+        }
+        return (double) bits(progress, ordinals).cardinality() / ordinals.length * 100;
+    }
+
+    // First lesson in ordinal order that is not completed yet, empty once all are
+    public Optional<Long> nextIncompleteLessonId(Progress progress) {
+        long[] ordinals = lessonOrdinals(progress);
+        int next = bits(progress, ordinals).nextClearBit(0);
+        return next < ordinals.length ? Optional.of(ordinals[next]) : Optional.empty();
+    }
+
+    // Appending a new lesson keeps every ordinal, so only the lesson totals move. Removing or replacing
+    // lessons shifts ordinals, so every bitmap and counter of the course is rebuilt from the join table.
+    // Reads the ordinals past the cache, which may still hold the ones from before the change.
+    public void lessonsChanged(Long courseId, boolean ordinalsShifted) {
+        long[] ordinals = toArray(courseRepository.findLessonIdsInOrder(courseId));
+        if (!ordinalsShifted) {
+            progressCounters.updateTotalLessons(courseId, ordinals.length);
+            return;
+        }
+        for (Progress progress : progressRepository.findWithCompletedLessonsByCourseId(courseId)) {
+            BitSet bits = encode(progress, ordinals);
+            progress.setCompletedLessonBits(bits.toByteArray());
+            progressCounters.record(progress, bits.cardinality(), ordinals.length);
+        }
+    }
+
+    private long[] lessonOrdinals(Progress progress) {
+        Long courseId = progress.getCourse().getId();
+        return contentCache.get(ContentCache.LESSON_ORDINALS, courseId,
+                () -> toArray(courseRepository.findLessonIdsInOrder(courseId)));
+    }
+
+    private BitSet bits(Progress progress, long[] ordinals) {
+        if (progress.getCompletedLessonBits() == null) {
+            BitSet bits = encode(progress, ordinals);
+            progress.setCompletedLessonBits(bits.toByteArray());
+            return bits;
+        }
+        return BitSet.valueOf(progress.getCompletedLessonBits());
+    }
+
+    private BitSet encode(Progress progress, long[] ordinals) {
+        BitSet bits = new BitSet(ordinals.length);
+        if (progress.getCompletedLessons() != null) {
+            for (Lesson lesson : progress.getCompletedLessons()) {
+                int ordinal = Arrays.binarySearch(ordinals, lesson.getId());
+                if (ordinal >= 0) {
+                    bits.set(ordinal);
+                }
+            }
+        }
+        return bits;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.service.progress;
+
+import com.example.demo.entity.Progress;
+import com.example.demo.entity.ProgressCounter;
+import com.example.demo.repository.ProgressCounterRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+// Writes the progress_counters rows, always inside the transaction that changes the underlying progress or lessons.
+// Progress rows from before the table existed got theirs from migration V6.
+@Service
+public class ProgressCounters {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProgressCounterRepository progressCounterRepository;
+
+    void record(Progress progress, int completedLessons, int totalLessons) {
+        ProgressCounter counter = entityManager.find(ProgressCounter.class, progress.getId());
+        boolean created = counter == null;
+        if (created) {
+            counter = new ProgressCounter();
+            counter.setProgressId(progress.getId());
+            counter.setUserId(progress.getUser().getId());
+            counter.setCourseId(progress.getCourse().getId());
+        }
+        counter.setCompletedLessons(completedLessons);
+        counter.setTotalLessons(totalLessons);
+        counter.setUpdatedAt(Instant.now());
+        if (created) {
+            entityManager.persist(counter);
+        }
+    }
+
+    void updateTotalLessons(Long courseId, int totalLessons) {
+        progressCounterRepository.updateTotalLessons(courseId, totalLessons, Instant.now());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.service.progress;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Progress;
+import com.example.demo.entity.User;
+import com.example.demo.repository.CourseRepository;
+import com.example.demo.repository.ProgressRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+// Single entry point for the Progress row a write is about to change. The row is created at most once per
+// (user, course) even under concurrent requests, and returned locked so writers for the same pair take turns.
+@Service
+public class ProgressStore {
+
+    // A duplicate (user, course) waits for the other insert to commit and then becomes a no-op,
+    // all on the caller's connection: no second transaction, so no second pooled connection per request.
+    // Hibernate renders the conflict clause for the dialect, on duplicate key update on MySQL; on databases
+    // without one, such as H2, it runs a plain insert and ignores the unique key violation.
+    private static final String INSERT_IF_MISSING =
+            "insert into Progress (id, user, course, status, completedLessonBits, version) " +
+            "values (:id, :user, :course, :status, :bits, 0) on conflict do nothing";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ProgressBitmaps progressBitmaps;
+
+    // Must run inside the caller's transaction; the lock is held until it ends
+    public Progress lockOrCreate(Long userId, Long courseId) {
+        // A plain read first: a locking read of a missing row would take a gap lock that blocks other inserts
+        if (progressRepository.findIdByUserIdAndCourseId(userId, courseId).isPresent()) {
+            return lock(userId, courseId);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
+        }
+        Long id = insertIfMissing(userId, courseId);
+        Progress progress = lock(userId, courseId);
+        if (progress.getId().equals(id)) {
+            progressBitmaps.initialize(progress);
+        }
+        return progress;
+    }
+
+    // Callers must not have loaded the row earlier in the transaction: the locking read would hand back that instance
+    public Progress lock(Long userId, Long courseId) {
+        return progressRepository.lockByUserIdAndCourseId(userId, courseId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Progress not found for user " + userId + " and course " + courseId
+                ));
+    }
+
+    private Long insertIfMissing(Long userId, Long courseId) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Progress.class).getGenerator();
+        Long id = (Long) generator.generate(session, new Progress());
+        entityManager.createQuery(INSERT_IF_MISSING)
+                .setParameter("id", id)
+                .setParameter("user", entityManager.getReference(User.class, userId))
+                .setParameter("course", entityManager.getReference(Course.class, courseId))
+                .setParameter("status", Progress.Status.ENROLLED)
+                .setParameter("bits", new byte[0])
+                .executeUpdate();
+        return id;
+    }
+}
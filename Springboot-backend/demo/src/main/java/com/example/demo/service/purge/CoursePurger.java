@@ -0,0 +1,298 @@
+package com.example.demo.service.purge;
+
+import com.example.demo.entity.CoursePurge;
+import com.example.demo.repository.CoursePurgeRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Removes the rows of soft-deleted courses on a background thread, one course at a time. Learner rows go in
+// batches of at most batch-size progress rows, enrollments or quiz attempts, each in its own transaction, so a
+// popular course never holds locks or undo for all its rows at once. Each batch also updates the course's
+// course_purges row, so a purge stopped by a restart resumes at the phase it had reached.
+@Slf4j
+@Service
+public class CoursePurger {
+
+    private static final long IDLE_POLL_SECONDS = 60;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final List<CoursePurge.State> UNFINISHED = List.of(CoursePurge.State.PENDING, CoursePurge.State.RUNNING);
+
+    private final int batchSize;
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile boolean running = true;
+    private Thread worker;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CoursePurgeRepository coursePurgeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    public CoursePurger(@Value("${course-purge.batch-size:500}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    // Started once the application is ready, which is also when purges a restart interrupted are picked up again
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        worker = new Thread(this::run, "course-purge");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Lets a running batch commit; the purge continues from the next one after a restart
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        wakeups.release();
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    // Joins the caller's transaction, which soft-deletes the course; the worker starts once it commits
+    public CoursePurge schedule(Long courseId) {
+        Instant now = Instant.now();
+        CoursePurge purge = new CoursePurge();
+        purge.setCourseId(courseId);
+        purge.setState(CoursePurge.State.PENDING);
+        purge.setPhase(CoursePurge.Phase.PROGRESS);
+        purge.setRequestedAt(now);
+        purge.setUpdatedAt(now);
+        coursePurgeRepository.save(purge);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeups.release();
+                }
+            });
+        } else {
+            wakeups.release();
+        }
+        return purge;
+    }
+
+    public CoursePurge getStatus(Long courseId) {
+        return coursePurgeRepository.findById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No purge for course " + courseId));
+    }
+
+    // Starts a failed purge again from its first phase; every phase only deletes what is still there
+    public CoursePurge retry(Long courseId) {
+        CoursePurge purge = transactionTemplate.execute(tx -> {
+            CoursePurge failed = getStatus(courseId);
+            if (failed.getState() != CoursePurge.State.FAILED) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "The purge of course " + courseId + " has not failed");
+            }
+            failed.setState(CoursePurge.State.PENDING);
+            failed.setPhase(CoursePurge.Phase.PROGRESS);
+            failed.setUpdatedAt(Instant.now());
+            failed.setFinishedAt(null);
+            failed.setError(null);
+            return failed;
+        });
+        wakeups.release();
+        return purge;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                CoursePurge next = coursePurgeRepository.findFirstByStateInOrderByRequestedAt(UNFINISHED).orElse(null);
+                if (next != null) {
+                    purge(next.getCourseId());
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not read pending course purges", e);
+            }
+            try {
+                wakeups.tryAcquire(IDLE_POLL_SECONDS, TimeUnit.SECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void purge(Long courseId) {
+        try {
+            CoursePurge.Phase resumeAt = update(courseId, purge -> purge.setState(CoursePurge.State.RUNNING)).getPhase();
+            for (CoursePurge.Phase phase : CoursePurge.Phase.values()) {
+                if (phase.ordinal() < resumeAt.ordinal()) {
+                    continue;
+                }
+                boolean more = true;
+                while (more && running) {
+                    more = transactionTemplate.execute(tx -> {
+                        int deleted = deleteBatch(courseId, phase);
+                        CoursePurge purge = entityManager.find(CoursePurge.class, courseId);
+                        purge.setPhase(phase);
+                        purge.setRowsDeleted(purge.getRowsDeleted() + deleted);
+                        purge.setUpdatedAt(Instant.now());
+                        return deleted > 0;
+                    });
+                }
+                if (!running) {
+                    return;
+                }
+            }
+            CoursePurge done = update(courseId, purge -> {
+                purge.setState(CoursePurge.State.COMPLETED);
+                purge.setFinishedAt(Instant.now());
+            });
+            log.info("Purged course {}: {} rows deleted", courseId, done.getRowsDeleted());
+        } catch (RuntimeException e) {
+            log.error("Purging course {} failed", courseId, e);
+            String error = String.valueOf(e.getMessage());
+            update(courseId, purge -> {
+                purge.setState(CoursePurge.State.FAILED);
+                purge.setFinishedAt(Instant.now());
+                purge.setError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            });
+        }
+    }
+
+    private CoursePurge update(Long courseId, Consumer<CoursePurge> change) {
+        return transactionTemplate.execute(tx -> {
+            CoursePurge purge = entityManager.find(CoursePurge.class, courseId);
+            change.accept(purge);
+            purge.setUpdatedAt(Instant.now());
+            return purge;
+        });
+    }
+
+    // Returns the number of rows deleted; zero once the phase has nothing left
+    private int deleteBatch(Long courseId, CoursePurge.Phase phase) {
+        return switch (phase) {
+            case PROGRESS -> deleteProgress(courseId);
+            case ENROLLMENTS -> deleteEnrollments(courseId);
+            case QUIZ_ATTEMPTS -> deleteQuizAttempts(courseId);
+            case CONTENT -> deleteContent(courseId);
+        };
+    }
+
+    private int deleteProgress(Long courseId) {
+        List<Long> ids = select("select id from progress where course_id = :courseId order by id",
+                Map.of("courseId", courseId), batchSize);
+        Map<String, Object> batch = Map.of("ids", ids);
+        return delete("progress_completed_lessons", "delete from progress_completed_lessons where progress_id in (:ids)", batch)
+                + delete("progress_counters", "delete from progress_counters where progress_id in (:ids)", batch)
+                + delete("progress", "delete from progress where id in (:ids)", batch);
+    }
+
+    // The join tables have no key of their own, so a batch is the rows of up to batch-size users
+    private int deleteEnrollments(Long courseId) {
+        return deleteUserLinks("user_enrolled_courses", "enrolled_users_id", "enrolled_courses_id", courseId)
+                + deleteUserLinks("user_recommended_courses", "user_id", "recommended_courses_id", courseId);
+    }
+
+    private int deleteUserLinks(String table, String userColumn, String courseColumn, Long courseId) {
+        List<Long> userIds = select("select " + userColumn + " from " + table + " where " + courseColumn + " = :courseId",
+                Map.of("courseId", courseId), batchSize);
+        return delete(table, "delete from " + table + " where " + courseColumn + " = :courseId and "
+                + userColumn + " in (:ids)", Map.of("courseId", courseId, "ids", userIds));
+    }
+
+    private int deleteQuizAttempts(Long courseId) {
+        List<Long> quizIds = quizIds(courseId);
+        List<Long> ids = select("select id from quiz_summary where quiz_id in (:quizIds) order by id",
+                Map.of("quizIds", quizIds), batchSize);
+        Map<String, Object> batch = Map.of("ids", ids);
+        return delete("quiz_question_summaries", "delete from quiz_question_summaries where quiz_summary_id in (:ids)", batch)
+                + delete("idempotency_keys", "delete from idempotency_keys where quiz_summary_id in (:ids)", batch)
+                + delete("quiz_summary", "delete from quiz_summary where id in (:ids)", batch);
+    }
+
+    // Content is small next to learner data, so the course and everything it owns go in one transaction
+    private int deleteContent(Long courseId) {
+        Map<String, Object> course = Map.of("courseId", courseId);
+        List<Long> quizIds = quizIds(courseId);
+        List<Long> lessonIds = select("select lessons_id from course_lessons where course_id = :courseId", course, 0);
+        List<Long> questionIds = select("select questions_id from quiz_questions where quiz_id in (:quizIds) " +
+                "union select id from question where quiz_id in (:quizIds)", Map.of("quizIds", quizIds), 0);
+        Map<String, Object> quizzes = Map.of("ids", quizIds);
+        Map<String, Object> questions = Map.of("ids", questionIds);
+        return delete("course_lessons", "delete from course_lessons where course_id = :courseId", course)
+                + delete("course", "delete from course where id = :courseId", course)
+                + delete("lesson", "delete from lesson where id in (:ids)", Map.of("ids", lessonIds))
+                + delete("quiz_questions", "delete from quiz_questions where quiz_id in (:ids)", quizzes)
+                + delete("question_options", "delete from question_options where question_id in (:ids)", questions)
+                + delete("question", "delete from question where id in (:ids)", questions)
+                + delete("quiz", "delete from quiz where id in (:ids)", quizzes)
+                + delete("question_option_stats", "delete from question_option_stats where quiz_id in (:ids)", quizzes)
+                + delete("quiz_invalid_answers", "delete from quiz_invalid_answers where quiz_id in (:ids)", quizzes);
+    }
+
+    // Read with SQL: Course's @SQLRestriction hides the deleted course from queries on the entity
+    private List<Long> quizIds(Long courseId) {
+        return select("select introductory_quiz_id from course where id = :courseId " +
+                "union select final_quiz_id from course where id = :courseId " +
+                "union select l.quiz_id from course_lessons cl join lesson l on l.id = cl.lessons_id where cl.course_id = :courseId",
+                Map.of("courseId", courseId), 0);
+    }
+
+    // A limit of 0 reads every row
+    private List<Long> select(String sql, Map<String, Object> parameters, int limit) {
+        if (hasEmptyList(parameters)) {
+            return List.of();
+        }
+        Query query = entityManager.createNativeQuery(sql);
+        parameters.forEach(query::setParameter);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        List<?> rows = query.getResultList();
+        return rows.stream()
+                .filter(Objects::nonNull)
+                .map(row -> ((Number) row).longValue())
+                .toList();
+    }
+
+    // Runs through Hibernate with the table as query space, so cached entities, collections and queries that read
+    // the table are invalidated as they would be by an entity delete
+    private int delete(String table, String sql, Map<String, Object> parameters) {
+        if (hasEmptyList(parameters)) {
+            return 0;
+        }
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addSynchronizedQuerySpace(table);
+        parameters.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    private static boolean hasEmptyList(Map<String, Object> parameters) {
+        return parameters.values().stream().anyMatch(value -> value instanceof Collection<?> list && list.isEmpty());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.service.recommendation;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import lombok.Getter;
+
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Published by CourseService when a course's indexed text changes; a null text means the course was deleted
+@Getter
+public class CourseTextChangedEvent {
+
+    private final Long courseId;
+    private final String text;
+
+    private CourseTextChangedEvent(Long courseId, String text) {
+        this.courseId = courseId;
+        this.text = text;
+    }
+
+    public static CourseTextChangedEvent updated(Course course) {
+        return new CourseTextChangedEvent(course.getId(), textOf(course));
+    }
+
+    public static CourseTextChangedEvent deleted(Long courseId) {
+        return new CourseTextChangedEvent(courseId, null);
+    }
+
+    public boolean isDeleted() {
+        return text == null;
+    }
+
+    // Course name, description and lesson names, the same fields the Python recommender vectorized
+    static String textOf(Course course) {
+        Stream<String> lessonNames = course.getLessons() == null
+                ? Stream.empty()
+                : course.getLessons().stream().map(Lesson::getName);
+        return Stream.concat(Stream.of(course.getName(), course.getDescription()), lessonNames)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "));
+    }
+}
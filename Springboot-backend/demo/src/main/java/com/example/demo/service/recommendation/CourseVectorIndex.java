@@ -0,0 +1,345 @@
+package com.example.demo.service.recommendation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Inverted TF-IDF index over course text. Document vectors and postings are kept in primitive
+// arrays indexed by slot; removed courses leave dead slots that are dropped by the next rebuild.
+// Not thread-safe: RecommendationEngine guards it with a read/write lock.
+class CourseVectorIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+    // IDF values drift as courses are added or removed; reweight once the corpus size moves this much
+    private static final double REWEIGHT_THRESHOLD = 0.1;
+    private static final int MIN_REWEIGHT_CHANGES = 64;
+    // Only the heaviest query terms are scored; the tail barely moves the ranking but walks the longest postings
+    private static final int MAX_QUERY_TERMS = 32;
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private int termCount;
+    private int[] documentFrequency = new int[INITIAL_CAPACITY];
+    private int[][] postingSlots = new int[INITIAL_CAPACITY][];
+    private float[][] postingWeights = new float[INITIAL_CAPACITY][];
+    private int[] postingSizes = new int[INITIAL_CAPACITY];
+
+    private final Map<Long, Integer> slotsByCourseId = new HashMap<>();
+    private long[] slotCourseIds = new long[INITIAL_CAPACITY];
+    private boolean[] slotLive = new boolean[INITIAL_CAPACITY];
+    // Distinct term ids of each document, with raw counts and normalized weights in the same order
+    private int[][] slotTerms = new int[INITIAL_CAPACITY][];
+    private int[][] slotCounts = new int[INITIAL_CAPACITY][];
+    private float[][] slotWeights = new float[INITIAL_CAPACITY][];
+    private int slotCount;
+    private int liveCount;
+    private int changesSinceReweight;
+
+    // Score arrays are as long as the slot arrays, so they are pooled rather than held per thread, which under
+    // virtual threads would mean one per request. Callers beyond the pool size allocate and drop their own.
+    private final BlockingQueue<float[]> spareScores =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    int size() {
+        return liveCount;
+    }
+
+    boolean contains(long courseId) {
+        return slotsByCourseId.containsKey(courseId);
+    }
+
+    void put(long courseId, String text) {
+        remove(courseId);
+        List<String> tokens = TextTokenizer.tokenize(text);
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (String token : tokens) {
+            counts.merge(termId(token), 1, Integer::sum);
+        }
+        int[] terms = new int[counts.size()];
+        int[] termCounts = new int[counts.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+            terms[i] = entry.getKey();
+            termCounts[i] = entry.getValue();
+            documentFrequency[terms[i]]++;
+            i++;
+        }
+
+        int slot = slotCount++;
+        ensureSlotCapacity(slotCount);
+        slotCourseIds[slot] = courseId;
+        slotLive[slot] = true;
+        slotTerms[slot] = terms;
+        slotCounts[slot] = termCounts;
+        slotWeights[slot] = weigh(terms, termCounts);
+        addPostings(slot);
+        slotsByCourseId.put(courseId, slot);
+        liveCount++;
+        afterChange();
+    }
+
+    void remove(long courseId) {
+        Integer slot = slotsByCourseId.remove(courseId);
+        if (slot == null) {
+            return;
+        }
+        slotLive[slot] = false;
+        for (int term : slotTerms[slot]) {
+            documentFrequency[term]--;
+        }
+        liveCount--;
+        afterChange();
+    }
+
+    // Sum of the normalized vectors of the given texts and indexed courses
+    QueryVector query(Collection<String> texts, Collection<Long> courseIds) {
+        Map<Integer, Float> weights = new HashMap<>();
+        for (String text : texts) {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (String token : TextTokenizer.tokenize(text)) {
+                Integer term = termIds.get(token);
+                if (term != null) {
+                    counts.merge(term, 1, Integer::sum);
+                }
+            }
+            int[] terms = counts.keySet().stream().mapToInt(Integer::intValue).toArray();
+            int[] termCounts = counts.values().stream().mapToInt(Integer::intValue).toArray();
+            float[] textWeights = weigh(terms, termCounts);
+            for (int i = 0; i < terms.length; i++) {
+                weights.merge(terms[i], textWeights[i], Float::sum);
+            }
+        }
+        for (Long courseId : courseIds) {
+            Integer slot = slotsByCourseId.get(courseId);
+            if (slot != null) {
+                int[] terms = slotTerms[slot];
+                float[] courseWeights = slotWeights[slot];
+                for (int i = 0; i < terms.length; i++) {
+                    weights.merge(terms[i], courseWeights[i], Float::sum);
+                }
+            }
+        }
+        List<Map.Entry<Integer, Float>> heaviest = weights.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Float>comparingByValue().reversed())
+                .limit(MAX_QUERY_TERMS)
+                .toList();
+        int[] terms = new int[heaviest.size()];
+        float[] values = new float[heaviest.size()];
+        for (int i = 0; i < heaviest.size(); i++) {
+            terms[i] = heaviest.get(i).getKey();
+            values[i] = heaviest.get(i).getValue();
+        }
+        return new QueryVector(terms, values);
+    }
+
+    // Course ids of the k best-scoring live courses, best first. Courses with no shared terms are never returned.
+    long[] topK(QueryVector query, Collection<Long> excludedCourseIds, int k) {
+        if (k <= 0) {
+            return new long[0];
+        }
+        float[] scores = spareScores.poll();
+        if (scores == null || scores.length < slotCount) {
+            scores = new float[slotCount * 2];
+        }
+
+        // Postings are in slot order, so the adds sweep the array front to back
+        for (int q = 0; q < query.terms.length; q++) {
+            int term = query.terms[q];
+            float queryWeight = query.weights[q];
+            int[] slots = postingSlots[term];
+            float[] weights = postingWeights[term];
+            for (int p = 0, n = postingSizes[term]; p < n; p++) {
+                scores[slots[p]] += queryWeight * weights[p];
+            }
+        }
+        for (Long courseId : excludedCourseIds) {
+            Integer slot = slotsByCourseId.get(courseId);
+            if (slot != null) {
+                scores[slot] = 0f;
+            }
+        }
+
+        // Min-heap of the best k slots seen so far, root is the weakest
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            float score = scores[slot];
+            if (score > 0f && (heapSize < k || score > scores[heap[0]]) && slotLive[slot]) {
+                if (heapSize < k) {
+                    heap[heapSize] = slot;
+                    siftUp(heap, heapSize++, scores);
+                } else {
+                    heap[0] = slot;
+                    siftDown(heap, heapSize, scores);
+                }
+            }
+        }
+
+        long[] result = new long[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = slotCourseIds[heap[0]];
+            heap[0] = heap[i];
+            siftDown(heap, i, scores);
+        }
+        // Only a cleared array goes back; one left dirty by an exception is dropped
+        Arrays.fill(scores, 0, slotCount, 0f);
+        spareScores.offer(scores);
+        return result;
+    }
+
+    // Drops dead slots and recomputes every weight with the current document frequencies
+    void rebuild() {
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slotLive[slot]) {
+                slotCourseIds[live] = slotCourseIds[slot];
+                slotTerms[live] = slotTerms[slot];
+                slotCounts[live] = slotCounts[slot];
+                slotLive[live] = true;
+                live++;
+            }
+        }
+        for (int slot = live; slot < slotCount; slot++) {
+            slotLive[slot] = false;
+            slotTerms[slot] = null;
+            slotCounts[slot] = null;
+            slotWeights[slot] = null;
+        }
+        slotCount = live;
+        slotsByCourseId.clear();
+        Arrays.fill(postingSizes, 0, termCount, 0);
+        for (int slot = 0; slot < slotCount; slot++) {
+            slotsByCourseId.put(slotCourseIds[slot], slot);
+            slotWeights[slot] = weigh(slotTerms[slot], slotCounts[slot]);
+            addPostings(slot);
+        }
+        changesSinceReweight = 0;
+    }
+
+    private void afterChange() {
+        changesSinceReweight++;
+        if (changesSinceReweight >= Math.max(MIN_REWEIGHT_CHANGES, liveCount * REWEIGHT_THRESHOLD)) {
+            rebuild();
+        }
+    }
+
+    private float[] weigh(int[] terms, int[] counts) {
+        float[] weights = new float[terms.length];
+        double norm = 0;
+        for (int i = 0; i < terms.length; i++) {
+            // Sublinear tf and smoothed idf, as in scikit-learn's TfidfVectorizer
+            double idf = Math.log((1.0 + liveCount) / (1.0 + documentFrequency[terms[i]])) + 1.0;
+            double weight = (1.0 + Math.log(counts[i])) * idf;
+            weights[i] = (float) weight;
+            norm += weight * weight;
+        }
+        if (norm > 0) {
+            float inverse = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] *= inverse;
+            }
+        }
+        return weights;
+    }
+
+    private void addPostings(int slot) {
+        int[] terms = slotTerms[slot];
+        float[] weights = slotWeights[slot];
+        for (int i = 0; i < terms.length; i++) {
+            int term = terms[i];
+            int size = postingSizes[term];
+            if (postingSlots[term] == null) {
+                postingSlots[term] = new int[4];
+                postingWeights[term] = new float[4];
+            } else if (size == postingSlots[term].length) {
+                postingSlots[term] = Arrays.copyOf(postingSlots[term], size * 2);
+                postingWeights[term] = Arrays.copyOf(postingWeights[term], size * 2);
+            }
+            postingSlots[term][size] = slot;
+            postingWeights[term][size] = weights[i];
+            postingSizes[term] = size + 1;
+        }
+    }
+
+    private int termId(String token) {
+        Integer id = termIds.get(token);
+        if (id != null) {
+            return id;
+        }
+        int newId = termCount++;
+        if (newId == documentFrequency.length) {
+            int capacity = newId * 2;
+            documentFrequency = Arrays.copyOf(documentFrequency, capacity);
+            postingSlots = Arrays.copyOf(postingSlots, capacity);
+            postingWeights = Arrays.copyOf(postingWeights, capacity);
+            postingSizes = Arrays.copyOf(postingSizes, capacity);
+        }
+        termIds.put(token, newId);
+        return newId;
+    }
+
+    private void ensureSlotCapacity(int required) {
+        if (required <= slotCourseIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, slotCourseIds.length * 2);
+        slotCourseIds = Arrays.copyOf(slotCourseIds, capacity);
+        slotLive = Arrays.copyOf(slotLive, capacity);
+        slotTerms = Arrays.copyOf(slotTerms, capacity);
+        slotCounts = Arrays.copyOf(slotCounts, capacity);
+        slotWeights = Arrays.copyOf(slotWeights, capacity);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[heap[parent]] <= scores[slot]) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        if (size == 0) {
+            return;
+        }
+        int index = 0;
+        int slot = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && scores[heap[child + 1]] < scores[heap[child]]) {
+                child++;
+            }
+            if (scores[slot] <= scores[heap[child]]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+
+    static final class QueryVector {
+        private final int[] terms;
+        private final float[] weights;
+
+        QueryVector(int[] terms, float[] weights) {
+            this.terms = terms;
+            this.weights = weights;
+        }
+
+        boolean isEmpty() {
+            return terms.length == 0;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.service.recommendation;
+
+import com.example.demo.entity.Course;
+import com.example.demo.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Content-based recommendations scored in memory against a TF-IDF index of the catalog.
+// The index is built once at startup and kept current from CourseTextChangedEvents after commit.
+@Slf4j
+@Service
+public class RecommendationEngine {
+
+    private static final int LOAD_CHUNK_SIZE = 500;
+
+    private final CourseVectorIndex index = new CourseVectorIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long start = System.currentTimeMillis();
+        Long after = 0L;
+        List<Long> ids;
+        do {
+            ids = courseRepository.findIdsAfter(after, PageRequest.of(0, LOAD_CHUNK_SIZE));
+            if (!ids.isEmpty()) {
+                List<Course> courses = courseRepository.findWithLessonsAndQuizzesByIdIn(ids);
+                lock.writeLock().lock();
+                try {
+                    courses.forEach(course -> index.put(course.getId(), CourseTextChangedEvent.textOf(course)));
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == LOAD_CHUNK_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            index.rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} courses for recommendations in {} ms", size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseTextChanged(CourseTextChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                index.remove(event.getCourseId());
+            } else {
+                index.put(event.getCourseId(), event.getText());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Top courses similar to the interests and the given profile courses, best first.
+    // Excluded courses (typically the ones the user already has) are never returned.
+    public List<Long> recommend(Collection<String> interests, Collection<Long> profileCourseIds,
+                                Collection<Long> excludedCourseIds, int limit) {
+        lock.readLock().lock();
+        try {
+            CourseVectorIndex.QueryVector query = index.query(interests, profileCourseIds);
+            if (query.isEmpty()) {
+                return List.of();
+            }
+            return Arrays.stream(index.topK(query, excludedCourseIds, limit)).boxed().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
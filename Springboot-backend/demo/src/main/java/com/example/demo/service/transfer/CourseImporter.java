@@ -0,0 +1,305 @@
+package com.example.demo.service.transfer;
+
+import com.example.demo.dto.CourseImportResult;
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.entity.Question;
+import com.example.demo.entity.Quiz;
+import com.example.demo.service.CourseService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Reads a JSON array or NDJSON stream of courses one course at a time and writes them with JDBC batches,
+// one transaction per group of about course-import.batch-rows rows, so memory does not grow with the document.
+// Incoming ids are ignored: every course, lesson, quiz and question is inserted as a new row. Groups already
+// committed stay when a later one fails, and the error says how many courses were imported.
+@Slf4j
+@Service
+public class CourseImporter {
+
+    private final int batchRows;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    public CourseImporter(@Value("${course-import.batch-rows:5000}") int batchRows) {
+        this.batchRows = batchRows;
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public CourseImportResult importCourses(InputStream in) {
+        long start = System.currentTimeMillis();
+        Counts imported = new Counts();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            List<Course> group = new ArrayList<>();
+            Counts groupCounts = new Counts();
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw invalid("Expected a course object but found " + token, imported);
+                }
+                Course course = objectMapper.readValue(parser, Course.class);
+                group.add(course);
+                groupCounts.add(course);
+                if (groupCounts.rows() >= batchRows) {
+                    write(group, groupCounts, imported);
+                    group.clear();
+                    groupCounts = new Counts();
+                }
+                token = parser.nextToken();
+            }
+            if (array && token == null) {
+                throw invalid("The course array is not closed", imported);
+            }
+            if (!group.isEmpty()) {
+                write(group, groupCounts, imported);
+            }
+        } catch (JsonProcessingException e) {
+            throw invalid("Invalid course document: " + e.getOriginalMessage(), imported);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long millis = System.currentTimeMillis() - start;
+        log.info("Imported {} courses in {} transactions in {} ms", imported.courses, imported.transactions, millis);
+        return new CourseImportResult(imported.courses, imported.lessons, imported.quizzes, imported.questions,
+                imported.options, imported.transactions, millis);
+    }
+
+    private void write(List<Course> group, Counts groupCounts, Counts imported) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    insert(connection, group);
+                    return null;
+                });
+                courseService.coursesImported(group);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw invalid("Course rejected by the database: " + e.getMostSpecificCause().getMessage(), imported);
+        }
+        // The rows were written behind Hibernate's back, so cached query results (the catalog summaries) are stale
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        imported.addAll(groupCounts);
+        imported.transactions++;
+    }
+
+    // Parents after children, so every foreign key points at a row that exists
+    private void insert(Connection connection, List<Course> courses) throws SQLException {
+        List<Quiz> quizzes = new ArrayList<>();
+        List<Lesson> lessons = new ArrayList<>();
+        for (Course course : courses) {
+            quizzes.add(course.getIntroductoryQuiz());
+            quizzes.add(course.getFinalQuiz());
+            lessons.addAll(lessonsOf(course));
+        }
+        lessons.forEach(lesson -> quizzes.add(lesson.getQuiz()));
+        quizzes.removeIf(Objects::isNull);
+
+        insertReturningIds(connection, "insert into quiz (name) values (?)", quizzes,
+                quiz -> new Object[]{quiz.getName()}, Quiz::setId);
+
+        List<Question> questions = new ArrayList<>();
+        quizzes.forEach(quiz -> questions.addAll(questionsOf(quiz)));
+        // quiz_id stays null as for courses added one by one; quizzes reach their questions through quiz_questions
+        insertReturningIds(connection, "insert into question (name) values (?)", questions,
+                question -> new Object[]{question.getName()}, Question::setId);
+
+        List<Object[]> options = new ArrayList<>();
+        for (Question question : questions) {
+            if (question.getOptions() != null) {
+                List<Question.Option> questionOptions = question.getOptions().stream().filter(Objects::nonNull).toList();
+                for (int i = 0; i < questionOptions.size(); i++) {
+                    Question.Option option = questionOptions.get(i);
+                    options.add(new Object[]{question.getId(), i, option.getText(), option.isCorrect()});
+                }
+            }
+        }
+        insertRows(connection,
+                "insert into question_options (question_id, option_index, text, is_correct) values (?, ?, ?, ?)", options);
+
+        List<Object[]> quizQuestions = new ArrayList<>();
+        quizzes.forEach(quiz -> questionsOf(quiz)
+                .forEach(question -> quizQuestions.add(new Object[]{quiz.getId(), question.getId()})));
+        insertRows(connection, "insert into quiz_questions (quiz_id, questions_id) values (?, ?)", quizQuestions);
+
+        insertReturningIds(connection,
+                "insert into lesson (name, description, youtube_video_link, difficulty_level, quiz_id) values (?, ?, ?, ?, ?)",
+                lessons,
+                lesson -> new Object[]{lesson.getName(), lesson.getDescription(), lesson.getYoutubeVideoLink(),
+                        lesson.getDifficultyLevel() == null ? null : lesson.getDifficultyLevel().name(),
+                        idOf(lesson.getQuiz())},
+                Lesson::setId);
+
+        insertReturningIds(connection,
+                "insert into course (name, description, image_url, introductory_quiz_id, final_quiz_id) values (?, ?, ?, ?, ?)",
+                courses,
+                course -> new Object[]{course.getName(), course.getDescription(), course.getImageUrl(),
+                        idOf(course.getIntroductoryQuiz()), idOf(course.getFinalQuiz())},
+                Course::setId);
+
+        List<Object[]> courseLessons = new ArrayList<>();
+        courses.forEach(course -> lessonsOf(course)
+                .forEach(lesson -> courseLessons.add(new Object[]{course.getId(), lesson.getId()})));
+        insertRows(connection, "insert into course_lessons (course_id, lessons_id) values (?, ?)", courseLessons);
+    }
+
+    // One batch per table; the generated keys come back in row order
+    private <T> void insertReturningIds(Connection connection, String sql, List<T> items,
+                                        Function<T, Object[]> columns, BiConsumer<T, Long> setId) throws SQLException {
+        if (items.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (T item : items) {
+                bind(statement, columns.apply(item));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            int i = 0;
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                while (keys.next() && i < items.size()) {
+                    setId.accept(items.get(i++), keys.getLong(1));
+                }
+            }
+            if (i != items.size()) {
+                throw new SQLException("Expected " + items.size() + " generated keys but got " + i);
+            }
+        }
+    }
+
+    private void insertRows(Connection connection, String sql, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Object[] row : rows) {
+                bind(statement, row);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Object[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+    }
+
+    private static Long idOf(Quiz quiz) {
+        return quiz == null ? null : quiz.getId();
+    }
+
+    private static List<Lesson> lessonsOf(Course course) {
+        return course.getLessons() == null
+                ? List.of()
+                : course.getLessons().stream().filter(Objects::nonNull).toList();
+    }
+
+    private static List<Question> questionsOf(Quiz quiz) {
+        return quiz.getQuestions() == null
+                ? List.of()
+                : quiz.getQuestions().stream().filter(Objects::nonNull).toList();
+    }
+
+    private static ResponseStatusException invalid(String reason, Counts imported) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                reason + " (" + imported.courses + " courses were imported before this)");
+    }
+
+    private static class Counts {
+        private long courses;
+        private long lessons;
+        private long quizzes;
+        private long questions;
+        private long options;
+        private int transactions;
+
+        void add(Course course) {
+            courses++;
+            List<Quiz> quizList = new ArrayList<>();
+            quizList.add(course.getIntroductoryQuiz());
+            quizList.add(course.getFinalQuiz());
+            for (Lesson lesson : lessonsOf(course)) {
+                lessons++;
+                quizList.add(lesson.getQuiz());
+            }
+            for (Quiz quiz : quizList) {
+                if (quiz == null) {
+                    continue;
+                }
+                quizzes++;
+                for (Question question : questionsOf(quiz)) {
+                    questions++;
+                    if (question.getOptions() != null) {
+                        options += question.getOptions().stream().filter(Objects::nonNull).count();
+                    }
+                }
+            }
+        }
+
+        void addAll(Counts other) {
+            courses += other.courses;
+            lessons += other.lessons;
+            quizzes += other.quizzes;
+            questions += other.questions;
+            options += other.options;
+        }
+
+        long rows() {
+            return courses + lessons + quizzes + questions + options;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Columns Progress gained after the ddl-auto schema: the optimistic lock version and the completed lesson bitmap.
+-- Existing rows start at version 0; a null bitmap is filled from progress_completed_lessons on first read
+-- (ProgressBitmaps). Numbered 1.1 so that V5 finds the bitmap column to widen.
+alter table progress add column completed_lesson_bits varbinary(256);
+alter table progress add column version bigint not null default 0;
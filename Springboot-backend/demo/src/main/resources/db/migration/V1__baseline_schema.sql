@@ -0,0 +1,176 @@
+-- The tables the entities had when spring.jpa.hibernate.ddl-auto=update still managed the schema, as it created
+-- them and with Hibernate's constraint names, plus the tables added since. Every table is created only if missing,
+-- so this also runs on databases that ddl-auto created (spring.flyway.baseline-version=0) and only adds the tables
+-- they lack. Tables that existed then keep that shape here: columns added to them since go in later migrations,
+-- which then apply the same way on both kinds of database.
+
+create table if not exists quiz (
+    id bigint not null auto_increment,
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists question (
+    id bigint not null auto_increment,
+    quiz_id bigint,
+    name varchar(255),
+    primary key (id),
+    constraint FKb0yh0c1qaxfwlcnwo9dms2txf foreign key (quiz_id) references quiz (id)
+) engine=InnoDB;
+
+create table if not exists question_options (
+    question_id bigint not null,
+    text varchar(255),
+    is_correct bit,
+    constraint FKjk4v42xhyfv4ca1yyhorsg5tv foreign key (question_id) references question (id)
+) engine=InnoDB;
+
+create table if not exists quiz_questions (
+    quiz_id bigint not null,
+    questions_id bigint not null,
+    constraint UKpfk49sobo174wlj8wb6c8082k unique (questions_id),
+    constraint FKcgp9e1c6ww3t383aui4w8feae foreign key (quiz_id) references quiz (id),
+    constraint FKpmfvwer12y1nrjc0efm04dq16 foreign key (questions_id) references question (id)
+) engine=InnoDB;
+
+create table if not exists user (
+    id bigint not null auto_increment,
+    name varchar(255),
+    mail_id varchar(255),
+    password varchar(255),
+    dob datetime(6),
+    role enum ('ADMIN','STUDENT'),
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists user_interests (
+    user_id bigint not null,
+    interests varchar(255),
+    constraint FKfk6yib4h6a7ca0k3xwtr09eom foreign key (user_id) references user (id)
+) engine=InnoDB;
+
+create table if not exists course (
+    id bigint not null auto_increment,
+    name varchar(255),
+    description varchar(255),
+    image_url varchar(255),
+    introductory_quiz_id bigint,
+    final_quiz_id bigint,
+    primary key (id),
+    constraint UKqa7cmcqfxqtkx3xhqi3oc9ck7 unique (introductory_quiz_id),
+    constraint UKohhbxov6vgedqgxij81bwmql0 unique (final_quiz_id),
+    constraint FKdmouchmlqq10fqhgkyv8h930l foreign key (introductory_quiz_id) references quiz (id),
+    constraint FKsnkc4ix125pmfexo6741yyhff foreign key (final_quiz_id) references quiz (id)
+) engine=InnoDB;
+
+create table if not exists lesson (
+    id bigint not null auto_increment,
+    name varchar(255),
+    description varchar(255),
+    youtube_video_link varchar(255),
+    difficulty_level enum ('EASY','HARD','MEDIUM'),
+    quiz_id bigint,
+    primary key (id),
+    constraint UK470jqvismxgbd9avf6q5a3m0g unique (quiz_id),
+    constraint FKr0a0gk5poioxfbdn7n7r4kwho foreign key (quiz_id) references quiz (id)
+) engine=InnoDB;
+
+create table if not exists course_lessons (
+    course_id bigint not null,
+    lessons_id bigint not null,
+    constraint UKjmeskn382gm3c0ylx0p1bbkav unique (lessons_id),
+    constraint FKpnblexnvun0cik2alnhd0to49 foreign key (course_id) references course (id),
+    constraint FKngptislimkt60qpmpgjqdbyab foreign key (lessons_id) references lesson (id)
+) engine=InnoDB;
+
+create table if not exists user_enrolled_courses (
+    enrolled_users_id bigint not null,
+    enrolled_courses_id bigint not null,
+    constraint FKcrhb5eanrcy161kxq7vwx44yn foreign key (enrolled_users_id) references user (id),
+    constraint FK39990t7jfpkrg599h3fm70bbe foreign key (enrolled_courses_id) references course (id)
+) engine=InnoDB;
+
+create table if not exists user_recommended_courses (
+    user_id bigint not null,
+    recommended_courses_id bigint not null,
+    constraint FKlv15wuwiaimhk9ius6sa4u32 foreign key (user_id) references user (id),
+    constraint FK3l72lr5nb59ma99advq92l49b foreign key (recommended_courses_id) references course (id)
+) engine=InnoDB;
+
+create table if not exists progress (
+    id bigint not null,
+    user_id bigint not null,
+    course_id bigint not null,
+    status enum ('COMPLETED','ENROLLED','IN_PROGRESS'),
+    primary key (id),
+    constraint UKhrn9o7osf83p8gufmjr2q3q2m unique (user_id, course_id),
+    constraint FK1tqjxovekjvbd5oa1ohreqqk4 foreign key (user_id) references user (id),
+    constraint FKsyhehp7u3ky9phqokro91ih4v foreign key (course_id) references course (id)
+) engine=InnoDB;
+
+create table if not exists progress_completed_lessons (
+    progress_id bigint not null,
+    lesson_id bigint not null,
+    primary key (progress_id, lesson_id),
+    constraint FKqj943l421wmouaxu54p2wcfv8 foreign key (progress_id) references progress (id),
+    constraint FKf27mrhd9o2r5yu20o9ju2hk02 foreign key (lesson_id) references lesson (id)
+) engine=InnoDB;
+
+create table if not exists progress_counters (
+    progress_id bigint not null,
+    user_id bigint not null,
+    course_id bigint not null,
+    completed_lessons integer not null,
+    total_lessons integer not null,
+    updated_at datetime(6) not null,
+    primary key (progress_id),
+    index idx_progress_counters_user_course (user_id, course_id),
+    index idx_progress_counters_course (course_id)
+) engine=InnoDB;
+
+create table if not exists quiz_summary (
+    id bigint not null,
+    quiz_id bigint,
+    user_id bigint,
+    score integer not null,
+    primary key (id),
+    constraint FKimnbrbj4ccnvyt6urh536xews foreign key (quiz_id) references quiz (id),
+    constraint FKt4rfw47wsshxdsxkvuqpvuryl foreign key (user_id) references user (id)
+) engine=InnoDB;
+
+create table if not exists quiz_question_summaries (
+    quiz_summary_id bigint not null,
+    question_id bigint,
+    selected_option_index integer,
+    is_correct bit,
+    constraint FKkd1qyl6mpximhpemh6bwcfkku foreign key (quiz_summary_id) references quiz_summary (id),
+    constraint FKf68nyaunc83kv8qcgsde7y5wt foreign key (question_id) references question (id)
+) engine=InnoDB;
+
+create table if not exists idempotency_keys (
+    id varchar(100) not null,
+    user_id bigint not null,
+    quiz_summary_id bigint,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists question_option_stats (
+    question_id bigint not null,
+    option_index integer not null,
+    quiz_id bigint not null,
+    selections bigint not null,
+    correct_selections bigint not null,
+    score_sum bigint not null,
+    score_square_sum bigint not null,
+    correct_score_sum bigint not null,
+    primary key (option_index, question_id),
+    index idx_question_option_stats_quiz (quiz_id)
+) engine=InnoDB;
+
+-- Next id per pooled table id generator (PooledTableId); IdGeneratorAlignment adds the rows
+create table if not exists id_generator (
+    generator_name varchar(255) not null,
+    next_val bigint,
+    primary key (generator_name)
+) engine=InnoDB;
@@ -0,0 +1,30 @@
+-- Indexes for the hottest lookups. InnoDB appends the primary key to every secondary index,
+-- so an index listing the filtered and selected columns answers its query without reading rows.
+
+-- Login: UserRepository.findByMailId. Not unique, as registration has never enforced it.
+create index idx_user_mail_id on user (mail_id);
+
+-- Attempt history and stats (QuizSummaryRepository): equality on user and quiz, newest id first, score
+-- read from the index
+create index idx_quiz_summary_attempts on quiz_summary (user_id, quiz_id, id, score);
+
+-- Course statuses for dashboards and course lists (ProgressRepository.findCourseStatusesByUserId),
+-- and lookups by user and status
+create index idx_progress_user_status on progress (user_id, status, course_id);
+
+-- Completions of a lesson, for lesson edits and deletes; the primary key serves lookups by progress
+create index idx_progress_completed_lessons_lesson on progress_completed_lessons (lesson_id, progress_id);
+
+-- A summary's answers (QuizSummaryRepository.fetchQuestionSummaries) and the analytics rebuild scan,
+-- both read entirely from the index
+create index idx_quiz_question_summaries_summary
+    on quiz_question_summaries (quiz_summary_id, question_id, selected_option_index, is_correct);
+
+-- "course member of user.enrolledCourses" in the course status query
+create index idx_user_enrolled_courses_user_course on user_enrolled_courses (enrolled_users_id, enrolled_courses_id);
+
+-- A course's lesson ids in order (CourseRepository.findLessonIdsInOrder) and the lesson fetch join
+create index idx_course_lessons_course on course_lessons (course_id, lessons_id);
+
+-- A quiz's question ids (QuizRepository.fetchQuestions)
+create index idx_quiz_questions_quiz on quiz_questions (quiz_id, questions_id);
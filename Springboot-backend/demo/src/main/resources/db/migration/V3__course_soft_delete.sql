@@ -0,0 +1,20 @@
+-- A deleted course is hidden by deleted_at at once; CoursePurger removes its rows afterwards
+alter table course add column deleted_at datetime(6);
+
+-- One row per deleted course. Each purge batch updates its row in the same transaction as the deletes,
+-- so a purge stopped by a restart resumes at the recorded phase.
+create table course_purges (
+    course_id bigint not null,
+    state enum ('PENDING','RUNNING','COMPLETED','FAILED') not null,
+    phase enum ('PROGRESS','ENROLLMENTS','QUIZ_ATTEMPTS','CONTENT') not null,
+    rows_deleted bigint not null,
+    requested_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    finished_at datetime(6),
+    error varchar(1000),
+    primary key (course_id),
+    index idx_course_purges_state (state)
+) engine=InnoDB;
+
+-- The purge removes the keys of the attempts it deletes
+create index idx_idempotency_keys_quiz_summary on idempotency_keys (quiz_summary_id);
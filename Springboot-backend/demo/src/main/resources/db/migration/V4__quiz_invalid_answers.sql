@@ -0,0 +1,7 @@
+-- Answers QuestionAnalytics could not match to an option of the quiz: a question of another quiz, or an option
+-- index the question does not have. One counter per quiz, so bogus answers cannot add rows.
+create table quiz_invalid_answers (
+    quiz_id bigint not null,
+    answers bigint not null,
+    primary key (quiz_id)
+) engine=InnoDB;
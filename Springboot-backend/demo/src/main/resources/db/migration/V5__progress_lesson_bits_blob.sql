@@ -0,0 +1,3 @@
+-- One bit per lesson: varbinary(256) capped courses at 2048 lessons and rejected the progress write of any
+-- longer one. A blob holds 65535 bytes; InnoDB still keeps values this small in the row.
+alter table progress modify completed_lesson_bits blob;
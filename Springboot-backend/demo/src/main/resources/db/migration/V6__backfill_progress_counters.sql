@@ -0,0 +1,9 @@
+-- Progress rows created before progress_counters existed get their row from the join tables. Runs once, before
+-- the application serves requests, so no enrollment can insert the same row meanwhile.
+insert into progress_counters (progress_id, user_id, course_id, completed_lessons, total_lessons, updated_at)
+select p.id, p.user_id, p.course_id,
+       (select count(*) from progress_completed_lessons pcl where pcl.progress_id = p.id),
+       (select count(*) from course_lessons cl where cl.course_id = p.course_id),
+       current_timestamp(6)
+from progress p
+where not exists (select 1 from progress_counters c where c.progress_id = p.id);
@@ -0,0 +1,31 @@
+-- Answers refer to an option by its position, which until now was whatever order the rows came back in.
+-- option_index stores it. Without a primary key InnoDB keeps the rows in insertion order, the order reads
+-- returned them in, so existing options are numbered in that order: a scan feeds an auto-increment sequence.
+create table question_options_sequenced (
+    seq bigint not null auto_increment,
+    question_id bigint not null,
+    text varchar(255),
+    is_correct bit,
+    primary key (seq)
+) engine=InnoDB;
+
+insert into question_options_sequenced (question_id, text, is_correct)
+select question_id, text, is_correct from question_options;
+
+create table question_options_ordered (
+    question_id bigint not null,
+    option_index integer not null,
+    text varchar(255),
+    is_correct bit,
+    primary key (question_id, option_index)
+) engine=InnoDB;
+
+insert into question_options_ordered (question_id, option_index, text, is_correct)
+select question_id, row_number() over (partition by question_id order by seq) - 1, text, is_correct
+from question_options_sequenced;
+
+drop table question_options_sequenced;
+drop table question_options;
+alter table question_options_ordered rename to question_options;
+alter table question_options add constraint FKjk4v42xhyfv4ca1yyhorsg5tv
+    foreign key (question_id) references question (id);
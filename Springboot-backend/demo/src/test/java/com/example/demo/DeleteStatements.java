@@ -0,0 +1,38 @@
+package com.example.demo;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Records every delete Hibernate runs, on any thread, so tests can check how background jobs batch their work.
+// Installed for the test profile by hibernate.session_factory.statement_inspector.
+public class DeleteStatements implements StatementInspector {
+
+    private static final Queue<String> DELETES = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public String inspect(String sql) {
+        if (sql.regionMatches(true, 0, "delete", 0, 6)) {
+            DELETES.add(sql);
+        }
+        return sql;
+    }
+
+    public static void clear() {
+        DELETES.clear();
+    }
+
+    // The recorded deletes from the given table, in the order they ran
+    public static List<String> from(String table) {
+        List<String> matching = new ArrayList<>();
+        for (String sql : DELETES) {
+            if (sql.toLowerCase().startsWith("delete from " + table + " ")) {
+                matching.add(sql);
+            }
+        }
+        return matching;
+    }
+}
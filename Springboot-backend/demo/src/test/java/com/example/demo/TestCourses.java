@@ -0,0 +1,85 @@
+package com.example.demo;
+
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.entity.Question;
+import com.example.demo.entity.Quiz;
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.example.demo.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Course and user fixtures shared by the tests. Every question has four options and option 1 is the correct one.
+public final class TestCourses {
+
+    public static final int OPTIONS = 4;
+    public static final int CORRECT_OPTION = 1;
+
+    private TestCourses() {
+    }
+
+    // A course with introductory and final quizzes and the given number of lessons, each with its own quiz
+    public static Course course(String name, int lessons, int questions) {
+        Course course = new Course();
+        course.setName(name);
+        course.setDescription("Description of " + name);
+        course.setIntroductoryQuiz(quiz("Introduction to " + name, questions));
+        course.setFinalQuiz(quiz("Final of " + name, questions));
+        List<Lesson> lessonList = new ArrayList<>(lessons);
+        for (int l = 0; l < lessons; l++) {
+            Lesson lesson = new Lesson();
+            lesson.setName(name + " lesson " + l);
+            lesson.setQuiz(quiz(name + " lesson quiz " + l, questions));
+            lessonList.add(lesson);
+        }
+        course.setLessons(lessonList);
+        return course;
+    }
+
+    public static Quiz quiz(String name, int questions) {
+        Quiz quiz = new Quiz();
+        quiz.setName(name);
+        List<Question> questionList = new ArrayList<>(questions);
+        for (int q = 0; q < questions; q++) {
+            Question question = new Question();
+            question.setName(name + " question " + q);
+            List<Question.Option> options = new ArrayList<>(OPTIONS);
+            for (int o = 0; o < OPTIONS; o++) {
+                Question.Option option = new Question.Option();
+                option.setText("Option " + o);
+                option.setCorrect(o == CORRECT_OPTION);
+                options.add(option);
+            }
+            question.setOptions(options);
+            questionList.add(question);
+        }
+        quiz.setQuestions(questionList);
+        return quiz;
+    }
+
+    // One correct answer per question of a saved quiz
+    public static List<QuestionSummary> correctAnswers(Quiz quiz) {
+        List<QuestionSummary> answers = new ArrayList<>();
+        for (Question saved : quiz.getQuestions()) {
+            Question question = new Question();
+            question.setId(saved.getId());
+            QuestionSummary answer = new QuestionSummary();
+            answer.setQuestion(question);
+            answer.setSelectedOptionIndex(CORRECT_OPTION);
+            answers.add(answer);
+        }
+        return answers;
+    }
+
+    // A user with a unique mail address, since tests share one database
+    public static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setMailId(name.replace(' ', '.') + "." + UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setEnrolledCourses(new ArrayList<>());
+        return user;
+    }
+}
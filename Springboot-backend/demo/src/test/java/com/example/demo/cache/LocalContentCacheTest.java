@@ -0,0 +1,68 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalContentCacheTest {
+
+    private final LocalContentCache cache = new LocalContentCache(100, Duration.ofMinutes(10));
+
+    @Test
+    void cachesLoadedValues() {
+        assertThat(cache.<String>get(ContentCache.COURSE, 1L, () -> "first")).isEqualTo("first");
+        assertThat(cache.<String>get(ContentCache.COURSE, 1L, () -> "second")).isEqualTo("first");
+    }
+
+    // A load that read before a write committed must not be cached after the write's eviction
+    @Test
+    void valueLoadedWhileTheKeyWasEvictedIsNotCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        CompletableFuture<String> staleRead = CompletableFuture.supplyAsync(() ->
+                cache.get(ContentCache.COURSE, 1L, () -> {
+                    loading.countDown();
+                    await(evicted);
+                    return "stale";
+                }));
+
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.evict(ContentCache.COURSE, 1L);
+        evicted.countDown();
+
+        assertThat(staleRead.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+        assertThat(cache.<String>get(ContentCache.COURSE, 1L, () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void evictAllAlsoStopsLoadsInFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        CompletableFuture<String> staleRead = CompletableFuture.supplyAsync(() ->
+                cache.get(ContentCache.CATALOG, "all", () -> {
+                    loading.countDown();
+                    await(evicted);
+                    return "stale";
+                }));
+
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.evictAll();
+        evicted.countDown();
+
+        staleRead.get(5, TimeUnit.SECONDS);
+        assertThat(cache.<String>get(ContentCache.CATALOG, "all", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
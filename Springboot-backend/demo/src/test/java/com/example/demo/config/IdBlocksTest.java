@@ -0,0 +1,53 @@
+package com.example.demo.config;
+
+import com.example.demo.IntegrationTest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class IdBlocksTest {
+
+    @Autowired
+    private IdBlocks idBlocks;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Requests hold a main-pool connection while they wait for an id, so reserving a block must not need another
+    @Test
+    void reservesBlocksWhileEveryMainPoolConnectionIsTaken() throws Exception {
+        int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                held.add(dataSource.getConnection());
+            }
+            // Block size 1 reserves a block on every call once the current block runs out
+            Set<Long> ids = CompletableFuture.supplyAsync(() -> {
+                Set<Long> handedOut = new HashSet<>();
+                for (int i = 0; i < 60; i++) {
+                    handedOut.add(idBlocks.next("quiz_summary", 1));
+                }
+                return handedOut;
+            }).get(10, TimeUnit.SECONDS);
+
+            assertThat(ids).hasSize(60);
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.controller;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.TestCourses;
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.service.CourseService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The test profile sets course-import.batch-rows to 50, so every three one-lesson courses are committed as a group
+@IntegrationTest
+class CourseImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Groups before the malformed line stay committed; the courses read since the last group are not written
+    @Test
+    void malformedLineRejectsTheRestAndReportsWhatWasImported() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int c = 0; c < 4; c++) {
+            body.append(line(TestCourses.course("Malformed import " + c, 1, 1)));
+        }
+        body.append("not a course\n");
+        body.append(line(TestCourses.course("Malformed import 5", 1, 1)));
+
+        importNdjson(body.toString())
+                .andExpect(status().isBadRequest())
+                .andExpect(status().reason(containsString("Invalid course document")))
+                .andExpect(status().reason(containsString("(3 courses were imported before this)")));
+
+        assertThat(coursesNamed("Malformed import %")).hasSize(3);
+    }
+
+    @Test
+    void linesThatAreNotCourseObjectsAreRejected() throws Exception {
+        importNdjson("42\n")
+                .andExpect(status().isBadRequest())
+                .andExpect(status().reason(containsString("Expected a course object")))
+                .andExpect(status().reason(containsString("(0 courses were imported before this)")));
+        importNdjson("{\"name\": \"Wrong lessons\", \"lessons\": \"none\"}\n")
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/courses/import").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + line(TestCourses.course("Unclosed array", 1, 1))))
+                .andExpect(status().isBadRequest())
+                .andExpect(status().reason(containsString("Invalid course document")));
+
+        assertThat(coursesNamed("Wrong lessons")).isEmpty();
+        assertThat(coursesNamed("Unclosed array")).isEmpty();
+    }
+
+    // Ids in the document are ignored, so importing a course twice adds two new courses and leaves the original
+    @Test
+    void duplicateIdsAreInsertedAsNewCourses() throws Exception {
+        Course original = courseService.addCourse(TestCourses.course("Duplicated import", 2, 1));
+        String exported = line(courseService.getCourseDetails(original.getId()).orElseThrow());
+
+        importNdjson(exported + exported)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses").value(2))
+                .andExpect(jsonPath("$.lessons").value(4));
+
+        List<Long> ids = coursesNamed("Duplicated import");
+        assertThat(ids).hasSize(3).doesNotHaveDuplicates().contains(original.getId());
+        for (Long id : ids) {
+            assertThat(jdbcTemplate.queryForList("select lessons_id from course_lessons where course_id = ?",
+                    Long.class, id)).hasSize(2);
+        }
+        assertThat(jdbcTemplate.queryForObject("select count(distinct lessons_id) from course_lessons "
+                + "where course_id in (?, ?, ?)", Long.class, ids.toArray())).isEqualTo(6);
+        assertThat(courseService.getCourseDetails(original.getId()).orElseThrow().getLessons())
+                .extracting(Lesson::getId)
+                .containsExactlyElementsOf(original.getLessons().stream().map(Lesson::getId).toList());
+    }
+
+    // An exported course imported as a JSON array comes back with new ids and the same content
+    @Test
+    void exportedCourseImportsWithTheSameContent() throws Exception {
+        Course original = courseService.addCourse(TestCourses.course("Round trip", 2, 2));
+
+        MvcResult export = mockMvc.perform(get("/courses/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String lines = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> exported = new ArrayList<>();
+        for (String line : lines.split("\n")) {
+            if (objectMapper.readTree(line).path("id").asLong() == original.getId()) {
+                exported.add(line);
+            }
+        }
+        assertThat(exported).hasSize(1);
+
+        mockMvc.perform(post("/courses/import").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + exported.get(0) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses").value(1))
+                .andExpect(jsonPath("$.questions").value(8))
+                .andExpect(jsonPath("$.options").value(32));
+
+        List<Long> ids = coursesNamed("Round trip");
+        assertThat(ids).hasSize(2);
+        Long copyId = ids.get(0).equals(original.getId()) ? ids.get(1) : ids.get(0);
+        assertThat(withoutIds(courseService.getCourseDetails(copyId).orElseThrow()))
+                .isEqualTo(withoutIds(courseService.getCourseDetails(original.getId()).orElseThrow()));
+    }
+
+    private ResultActions importNdjson(String body) throws Exception {
+        return mockMvc.perform(post("/courses/import").contentType(MediaType.APPLICATION_NDJSON).content(body));
+    }
+
+    private String line(Course course) throws Exception {
+        return objectMapper.writeValueAsString(course) + "\n";
+    }
+
+    private List<Long> coursesNamed(String pattern) {
+        return jdbcTemplate.queryForList("select id from course where name like ? order by id", Long.class, pattern);
+    }
+
+    private JsonNode withoutIds(Course course) {
+        JsonNode tree = objectMapper.valueToTree(course);
+        removeIds(tree);
+        return tree;
+    }
+
+    private static void removeIds(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            object.remove("id");
+        }
+        node.forEach(CourseImportTest::removeIds);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.controller;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.TestCourses;
+import com.example.demo.entity.Course;
+import com.example.demo.service.CourseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+class CoursePatchTest {
+
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+    private static final String JSON_PATCH = "application/json-patch+json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Test
+    void mergePatchChangesOnlyTheGivenFields() throws Exception {
+        Course course = courseService.addCourse(TestCourses.course("Merge patched", 2, 1));
+
+        send(course, MERGE_PATCH, "{'name': 'Merge patched again', 'description': null}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Merge patched again"))
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.lessons.length()").value(2));
+    }
+
+    @Test
+    void jsonPatchEditsALessonByPath() throws Exception {
+        Course course = courseService.addCourse(TestCourses.course("Json patched", 2, 1));
+        Long lessonId = course.getLessons().get(1).getId();
+
+        send(course, JSON_PATCH, "[{'op': 'test', 'path': '/lessons/1/id', 'value': " + lessonId + "},"
+                + "{'op': 'replace', 'path': '/lessons/1/name', 'value': 'Renamed lesson'}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lessons[1].id").value(lessonId))
+                .andExpect(jsonPath("$.lessons[1].name").value("Renamed lesson"));
+    }
+
+    // A rejected patch changes nothing, including the operations before the one that failed
+    @Test
+    void rejectedPatchesLeaveTheCourseUnchanged() throws Exception {
+        Course course = courseService.addCourse(TestCourses.course("Unpatched", 1, 1));
+
+        send(course, JSON_PATCH, "[{'op': 'replace', 'path': '/name', 'value': 'Changed'},"
+                + "{'op': 'test', 'path': '/description', 'value': 'Something else'}]")
+                .andExpect(status().isConflict());
+        send(course, JSON_PATCH, "[{'op': 'replace', 'path': '/name', 'value': 'Changed'},"
+                + "{'op': 'remove', 'path': '/lessons/5'}]")
+                .andExpect(status().isConflict());
+        send(course, JSON_PATCH, "[{'op': 'rename', 'path': '/name'}]")
+                .andExpect(status().isBadRequest());
+        send(course, JSON_PATCH, "[{'op': 'replace', 'path': '/lessons', 'value': 'no lessons'}]")
+                .andExpect(status().isUnprocessableEntity());
+        send(course, MERGE_PATCH, "{'name': 'Changed', 'lessons': {'id': 'not a list'}}")
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(courseService.getCourseDetails(course.getId()).orElseThrow().getName()).isEqualTo("Unpatched");
+    }
+
+    @Test
+    void patchingAMissingCourseIsNotFound() throws Exception {
+        Course missing = new Course();
+        missing.setId(Long.MAX_VALUE);
+
+        send(missing, MERGE_PATCH, "{'name': 'Nothing'}").andExpect(status().isNotFound());
+        send(missing, JSON_PATCH, "[]").andExpect(status().isNotFound());
+    }
+
+    // The body is written with single quotes, which read better in Java strings
+    private ResultActions send(Course course, String contentType, String body) throws Exception {
+        return mockMvc.perform(patch("/courses/{courseId}", course.getId())
+                .contentType(contentType)
+                .content(body.replace('\'', '"')));
+    }
+}
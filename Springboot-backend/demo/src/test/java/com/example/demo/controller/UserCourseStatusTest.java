@@ -0,0 +1,97 @@
+package com.example.demo.controller;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.TestCourses;
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.service.CourseService;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+class UserCourseStatusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void unknownUserIsNotFoundForEveryBucket() throws Exception {
+        for (String bucket : new String[]{"enrolled-courses", "in-progress-courses", "completed-courses", "dashboard"}) {
+            mockMvc.perform(get("/users/{userId}/" + bucket, Long.MAX_VALUE))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Test
+    void courseMarkedInProgressIsListed() throws Exception {
+        Long userId = userService.registerUser(TestCourses.user("Bucket learner")).getId();
+        Course course = courseService.addCourse(TestCourses.course("Bucket course", 1, 1));
+        mockMvc.perform(post("/users/{userId}/enroll/{courseId}", userId, course.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/users/users/{userId}/courses/{courseId}/in-progress", userId, course.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/{userId}/in-progress-courses", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(course.getId()));
+    }
+
+    @Test
+    void lastLessonOfACourseLongerThan2048LessonsIsCompleted() throws Exception {
+        Long userId = userService.registerUser(TestCourses.user("Long course learner")).getId();
+        Course course = courseService.addCourse(TestCourses.course("Long course", 2100, 0));
+        Long lastLessonId = course.getLessons().get(course.getLessons().size() - 1).getId();
+        userService.addLessonQuizSummary(userId, course.getId(), lastLessonId, List.of());
+
+        mockMvc.perform(get("/courses/{courseId}/users/{userId}/completed-lessons", course.getId(), userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(lastLessonId));
+    }
+
+    @Test
+    void lessonCompletedOnARowWithoutABitmapIsCounted() throws Exception {
+        Long userId = userService.registerUser(TestCourses.user("Upgraded learner")).getId();
+        Course course = courseService.addCourse(TestCourses.course("Upgraded course", 3, 0));
+        List<Lesson> lessons = course.getLessons();
+        mockMvc.perform(post("/users/{userId}/enroll/{courseId}", userId, course.getId()))
+                .andExpect(status().isOk());
+        completeLesson(userId, course, lessons.get(0));
+        // As on rows saved before the column existed, which V1.1 adds as null
+        jdbcTemplate.update("update progress set completed_lesson_bits = null where user_id = ?", userId);
+
+        completeLesson(userId, course, lessons.get(1));
+
+        mockMvc.perform(get("/users/{userId}/progress", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].completedLessons").value(2))
+                .andExpect(jsonPath("$[0].totalLessons").value(3));
+    }
+
+    private void completeLesson(Long userId, Course course, Lesson lesson) throws Exception {
+        mockMvc.perform(post("/users/{userId}/courses/{courseId}/lessons/{lessonId}/complete",
+                        userId, course.getId(), lesson.getId()))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The V2 indexes on real MySQL: EXPLAIN the SQL Hibernate runs for the hot lookups and check each picks its index.
+// H2 plans say nothing about MySQL's, so this runs against a MySQL container and is skipped without Docker.
+@Testcontainers(disabledWithoutDocker = true)
+class HotPathIndexExplainTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    // UserRepository.findByMailId
+    private static final String LOGIN = "select u1_0.id,u1_0.dob,u1_0.mail_id,u1_0.name,u1_0.password,u1_0.role "
+            + "from user u1_0 where u1_0.mail_id=?";
+
+    // QuizSummaryRepository.findAttemptsBefore
+    private static final String ATTEMPTS = "select qs1_0.id,qs1_0.score from quiz_summary qs1_0 "
+            + "where qs1_0.user_id=? and qs1_0.quiz_id=? and qs1_0.id<? order by qs1_0.id desc limit ?";
+
+    // QuizSummaryRepository.findAttemptStats
+    private static final String STATS = "select count(qs1_0.id),max(qs1_0.score),qs2_0.score,"
+            + "avg(cast(qs1_0.score as double)) from quiz_summary qs1_0,quiz_summary qs2_0 "
+            + "where qs1_0.user_id=? and qs1_0.quiz_id=? and qs2_0.id=(select max(qs3_0.id) from quiz_summary qs3_0 "
+            + "where qs3_0.user_id=? and qs3_0.quiz_id=?) group by qs2_0.id,qs2_0.score";
+
+    // ProgressRepository.findCourseStatusesByUserId
+    private static final String STATUSES = "select c1_0.id,p1_0.status,case when p1_0.course_id in "
+            + "(select ec1_0.enrolled_courses_id from user_enrolled_courses ec1_0 "
+            + "where u1_0.id=ec1_0.enrolled_users_id) then true else false end from progress p1_0 "
+            + "join course c1_0 on c1_0.id=p1_0.course_id and (c1_0.deleted_at is null) "
+            + "join user u1_0 on u1_0.id=p1_0.user_id where p1_0.user_id=? order by p1_0.id";
+
+    // Enough rows that a full scan costs more than the index: 2000 users, 200 courses, 100k attempts
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure().dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()).load().migrate();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("set session cte_max_recursion_depth = 100000");
+            statement.execute("insert into quiz (id, name) " + numbers(400) + " select n, concat('Quiz ', n) from seq");
+            statement.execute("insert into course (id, name, introductory_quiz_id) " + numbers(200)
+                    + " select n, concat('Course ', n), n from seq");
+            statement.execute("insert into user (id, name, mail_id, role) " + numbers(2000)
+                    + " select n, concat('User ', n), concat('user', n, '@example.com'), 'STUDENT' from seq");
+            statement.execute("insert into quiz_summary (id, quiz_id, user_id, score) " + numbers(100000)
+                    + " select n, 1 + n % 400, 1 + n % 2000, n % 100 from seq");
+            statement.execute("insert into progress (id, user_id, course_id, status, version) " + numbers(40000)
+                    + " select n, 1 + n % 2000, 1 + (n div 2000) % 200,"
+                    + " elt(1 + n % 3, 'ENROLLED', 'IN_PROGRESS', 'COMPLETED'), 0 from seq");
+            statement.execute("insert into user_enrolled_courses select user_id, course_id from progress");
+            statement.execute("analyze table user, quiz, course, quiz_summary, progress, user_enrolled_courses");
+        }
+    }
+
+    @Test
+    void loginLooksUpTheMailIndex() throws SQLException {
+        assertThat(keysFor(LOGIN, "user17@example.com")).containsEntry("u1_0", "idx_user_mail_id");
+    }
+
+    @Test
+    void attemptPageAndStatsReadTheAttemptsIndex() throws SQLException {
+        assertThat(keysFor(ATTEMPTS, 17, 17, 90000, 20)).containsEntry("qs1_0", "idx_quiz_summary_attempts");
+        assertThat(keysFor(STATS, 17, 17, 17, 17)).containsEntry("qs1_0", "idx_quiz_summary_attempts");
+    }
+
+    @Test
+    void courseStatusesReadTheProgressStatusIndex() throws SQLException {
+        assertThat(keysFor(STATUSES, 17)).containsEntry("p1_0", "idx_progress_user_status");
+    }
+
+    // The index EXPLAIN picks for each table alias in the query
+    private static Map<String, String> keysFor(String sql, Object... parameters) throws SQLException {
+        Map<String, String> keys = new HashMap<>();
+        try (Connection connection = connect();
+             PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                explain.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                while (plan.next()) {
+                    if (plan.getString("table") != null) {
+                        keys.put(plan.getString("table"), plan.getString("key"));
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static String numbers(int count) {
+        return "with recursive seq (n) as (select 1 union all select n + 1 from seq where n < " + count + ")";
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+    }
+}
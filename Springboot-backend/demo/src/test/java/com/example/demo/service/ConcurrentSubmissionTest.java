@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.TestCourses;
+import com.example.demo.dto.CourseProgress;
+import com.example.demo.dto.CourseStatus;
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.entity.Progress;
+import com.example.demo.repository.ProgressRepository;
+import com.example.demo.service.progress.ProgressBitmaps;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Submissions for one user and course all change the same Progress row. Run together they must apply one after
+// another: no lesson bit or counter lost to a concurrent write, one attempt recorded per submission, no deadlock.
+@IntegrationTest
+class ConcurrentSubmissionTest {
+
+    private static final int SUBMISSIONS = 64;
+    private static final int LESSONS = 48;
+    private static final int FINAL_SUBMISSIONS = SUBMISSIONS - LESSONS;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private ProgressBitmaps progressBitmaps;
+
+    // Nobody is enrolled yet, so every submission races to create the Progress row as well
+    @Test
+    void concurrentFirstLessonSubmissionsCreateOneProgressRow() throws Exception {
+        Long userId = userService.registerUser(TestCourses.user("First-time learner")).getId();
+        Course course = courseService.addCourse(TestCourses.course("First-time course", SUBMISSIONS + 4, 1));
+        Long courseId = course.getId();
+
+        List<Callable<Object>> submissions = new ArrayList<>();
+        for (Lesson lesson : course.getLessons().subList(0, SUBMISSIONS)) {
+            submissions.add(() -> userService.addLessonQuizSummary(userId, courseId, lesson.getId(),
+                    TestCourses.correctAnswers(lesson.getQuiz())));
+        }
+        runTogether(submissions);
+
+        assertThat(progressRepository.findCourseStatusesByUserId(userId)).hasSize(1);
+        assertLessonsCompleted(userId, course, SUBMISSIONS);
+    }
+
+    @Test
+    void concurrentLessonAndFinalSubmissionsAreAllApplied() throws Exception {
+        Long userId = userService.registerUser(TestCourses.user("Concurrent learner")).getId();
+        Course course = courseService.addCourse(TestCourses.course("Concurrent course", LESSONS, 1));
+        Long courseId = course.getId();
+        userService.enrollCourse(userId, courseId);
+
+        List<Callable<Object>> submissions = new ArrayList<>();
+        for (Lesson lesson : course.getLessons()) {
+            submissions.add(() -> userService.addLessonQuizSummary(userId, courseId, lesson.getId(),
+                    TestCourses.correctAnswers(lesson.getQuiz())));
+        }
+        for (int i = 0; i < FINAL_SUBMISSIONS; i++) {
+            submissions.add(() -> userService.addFinalQuizSummary(userId, courseId,
+                    TestCourses.correctAnswers(course.getFinalQuiz())));
+        }
+        runTogether(submissions);
+
+        List<CourseStatus> statuses = progressRepository.findCourseStatusesByUserId(userId);
+        assertThat(statuses).hasSize(1);
+        assertThat(statuses.get(0).getStatus()).isEqualTo(Progress.Status.COMPLETED);
+        assertLessonsCompleted(userId, course, LESSONS);
+        assertThat(userService.getQuizAttemptStats(userId, course.getFinalQuiz().getId()).getAttempts())
+                .isEqualTo(FINAL_SUBMISSIONS);
+    }
+
+    // Completing the course by hand changes the same row as the submissions, so it must wait its turn too
+    @Test
+    void completeCourseDuringSubmissionsIsApplied() throws Exception {
+        Long userId = userService.registerUser(TestCourses.user("Completing learner")).getId();
+        Course course = courseService.addCourse(TestCourses.course("Completed course", LESSONS, 1));
+        Long courseId = course.getId();
+        userService.enrollCourse(userId, courseId);
+
+        List<Callable<Object>> submissions = new ArrayList<>();
+        for (Lesson lesson : course.getLessons()) {
+            submissions.add(() -> userService.addLessonQuizSummary(userId, courseId, lesson.getId(),
+                    TestCourses.correctAnswers(lesson.getQuiz())));
+        }
+        for (int i = 0; i < FINAL_SUBMISSIONS; i++) {
+            submissions.add(() -> userService.completeCourse(userId, courseId));
+        }
+        runTogether(submissions);
+
+        List<CourseStatus> statuses = progressRepository.findCourseStatusesByUserId(userId);
+        assertThat(statuses).hasSize(1);
+        assertThat(statuses.get(0).getStatus()).isEqualTo(Progress.Status.COMPLETED);
+        assertThat(statuses.get(0).isEnrolled()).isFalse();
+        assertLessonsCompleted(userId, course, LESSONS);
+    }
+
+    // Starts every submission at once on its own thread
+    private void runTogether(List<Callable<Object>> submissions) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(submissions.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> results = new ArrayList<>();
+            for (Callable<Object> submission : submissions) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return submission.call();
+                }));
+            }
+            start.countDown();
+            // A deadlock or a pool starved of connections shows up as a timeout here
+            for (Future<Object> result : results) {
+                assertThat(result.get(60, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // The first lessons have their bit set and one attempt each, and the counters match the bitmap
+    private void assertLessonsCompleted(Long userId, Course course, int completed) {
+        Progress progress = progressRepository.findByUserIdAndCourseId(userId, course.getId()).orElseThrow();
+        List<Lesson> lessons = course.getLessons();
+        for (int l = 0; l < lessons.size(); l++) {
+            Lesson lesson = lessons.get(l);
+            assertThat(progressBitmaps.isCompleted(progress, lesson.getId())).isEqualTo(l < completed);
+            assertThat(userService.getQuizAttemptStats(userId, lesson.getQuiz().getId()).getAttempts())
+                    .isEqualTo(l < completed ? 1 : 0);
+        }
+        CourseProgress counters = userService.getCourseProgress(userId, course.getId());
+        assertThat(counters.getCompletedLessons()).isEqualTo(completed);
+        assertThat(counters.getTotalLessons()).isEqualTo(lessons.size());
+    }
+}
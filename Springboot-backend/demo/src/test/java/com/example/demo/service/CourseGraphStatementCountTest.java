@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.TestCourses;
+import com.example.demo.entity.Course;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Course graphs are loaded with one query per association level, so the number of statements must not
+// grow with the number of courses
+@IntegrationTest
+class CourseGraphStatementCountTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getCoursesRunsTheSameStatementsForTwoAndTwentyCourses() {
+        List<Long> few = addCourses("Few", 2);
+        List<Long> many = addCourses("Many", 20);
+
+        long forFew = statementsFor(() -> courseService.getCourses(few));
+        long forMany = statementsFor(() -> courseService.getCourses(many));
+
+        assertThat(courseService.getCourses(many)).hasSize(20);
+        assertThat(forFew).isPositive();
+        assertThat(forMany).isEqualTo(forFew);
+    }
+
+    @Test
+    void getAllCoursesDoesNotRunMoreStatementsAsTheCatalogGrows() {
+        addCourses("Catalog", 3);
+        long before = statementsFor(courseService::getAllCourses);
+        addCourses("Grown catalog", 15);
+        long after = statementsFor(courseService::getAllCourses);
+
+        assertThat(after).isEqualTo(before);
+    }
+
+    // Courses with every level the graph query loads: lessons, quizzes, questions, options, progress and attempts
+    private List<Long> addCourses(String name, int count) {
+        Long userId = userService.registerUser(TestCourses.user(name + " learner")).getId();
+        List<Long> ids = new ArrayList<>();
+        for (int c = 0; c < count; c++) {
+            Course course = courseService.addCourse(TestCourses.course(name + " " + c, 2, 3));
+            userService.enrollCourse(userId, course.getId());
+            userService.addIntroQuizSummary(userId, course.getId(),
+                    TestCourses.correctAnswers(course.getIntroductoryQuiz()));
+            ids.add(course.getId());
+        }
+        return ids;
+    }
+
+    // Statements one cold load runs, with the second-level and query caches emptied first
+    private long statementsFor(Supplier<List<Course>> load) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        load.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
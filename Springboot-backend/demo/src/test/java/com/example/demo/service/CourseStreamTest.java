@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.TestCourses;
+import com.example.demo.entity.Course;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class CourseStreamTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // More than one keyset chunk, handed out in id order with no transaction held while the caller writes
+    @Test
+    void forEachCourseVisitsEveryCourseOutsideTheChunkTransactions() throws Exception {
+        List<Long> added = new ArrayList<>();
+        for (int c = 0; c < 130; c++) {
+            added.add(courseService.addCourse(TestCourses.course("Streamed " + c, 1, 1)).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        List<Boolean> inTransaction = new ArrayList<>();
+        List<String> json = new ArrayList<>();
+        courseService.forEachCourse(course -> {
+            seen.add(course.getId());
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            if (added.contains(course.getId())) {
+                json.add(write(course));
+            }
+        });
+
+        assertThat(seen).containsAll(added).isSorted().doesNotHaveDuplicates();
+        assertThat(inTransaction).containsOnly(false);
+        assertThat(json).hasSize(added.size()).allMatch(line -> line.contains("\"lessons\":[{"));
+    }
+
+    private String write(Course course) {
+        try {
+            return objectMapper.writeValueAsString(course);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.service.analytics;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.TestCourses;
+import com.example.demo.dto.AnalyticsRebuildStatus;
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Question;
+import com.example.demo.entity.Quiz;
+import com.example.demo.entity.QuizSummary.QuestionSummary;
+import com.example.demo.service.CourseService;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+class QuestionAnalyticsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AnalyticsRebuild analyticsRebuild;
+
+    @Test
+    void answersOutsideTheQuizAreCountedAsInvalid() throws Exception {
+        Course course = courseService.addCourse(TestCourses.course("Analytics course", 1, 2));
+        Course other = courseService.addCourse(TestCourses.course("Other analytics course", 1, 1));
+        Quiz quiz = course.getIntroductoryQuiz();
+        Long userId = userService.registerUser(TestCourses.user("Analytics learner")).getId();
+
+        List<QuestionSummary> answers = new ArrayList<>(TestCourses.correctAnswers(quiz));
+        // The second question's answer selects an option it does not have
+        answers.get(1).setSelectedOptionIndex(2_000_000_000);
+        answers.add(answer(quiz.getQuestions().get(0), null));
+        answers.add(answer(quiz.getQuestions().get(0), -5));
+        answers.add(answer(other.getIntroductoryQuiz().getQuestions().get(0), TestCourses.CORRECT_OPTION));
+        userService.addIntroQuizSummary(userId, course.getId(), answers);
+
+        assertAnalysis(quiz);
+
+        // A rebuild from the stored answers comes to the same result
+        analyticsRebuild.start(quiz.getId());
+        awaitRebuild();
+        assertAnalysis(quiz);
+    }
+
+    private void assertAnalysis(Quiz quiz) throws Exception {
+        Long questionId = quiz.getQuestions().get(0).getId();
+        mockMvc.perform(get("/admin/analytics/quizzes/{quizId}", quiz.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.invalidAnswers").value(3))
+                .andExpect(jsonPath("$.questions.length()").value(1))
+                .andExpect(jsonPath("$.questions[0].questionId").value(questionId))
+                .andExpect(jsonPath("$.questions[0].answered").value(2))
+                .andExpect(jsonPath("$.questions[0].unanswered").value(1))
+                .andExpect(jsonPath("$.questions[0].correct").value(1))
+                // One entry per option of the question, whatever indexes were submitted
+                .andExpect(jsonPath("$.questions[0].optionSelections", contains(0, 1, 0, 0)));
+    }
+
+    private void awaitRebuild() {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            AnalyticsRebuildStatus rebuild = analyticsRebuild.getStatus();
+            if (rebuild.getState() == AnalyticsRebuildStatus.State.COMPLETED) {
+                return;
+            }
+            assertThat(rebuild.getState()).isNotEqualTo(AnalyticsRebuildStatus.State.FAILED);
+            assertThat(System.currentTimeMillis()).as("analytics rebuild finished").isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static QuestionSummary answer(Question saved, Integer optionIndex) {
+        Question question = new Question();
+        question.setId(saved.getId());
+        QuestionSummary answer = new QuestionSummary();
+        answer.setQuestion(question);
+        answer.setSelectedOptionIndex(optionIndex);
+        return answer;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.service.editing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonPatchesTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final JsonNode COURSE = json("{'id': 7, 'name': 'Java', 'description': 'Basics',"
+            + " 'meta': {'level': 'easy', 'tags': ['jvm']}, 'lessons': [{'id': 1}, {'id': 2}, {'id': 3}]}");
+
+    @Test
+    void mergePatchRemovesNullMembersAndMergesObjects() {
+        JsonNode merged = JsonPatches.merge(COURSE, json("{'description': null, 'meta': {'level': 'hard'},"
+                + " 'missing': null, 'imageUrl': 'java.png'}"));
+
+        assertThat(merged).isEqualTo(json("{'id': 7, 'name': 'Java', 'meta': {'level': 'hard', 'tags': ['jvm']},"
+                + " 'lessons': [{'id': 1}, {'id': 2}, {'id': 3}], 'imageUrl': 'java.png'}"));
+        assertThat(COURSE.has("description")).isTrue();
+    }
+
+    // RFC 7386 has no way to change one element of an array: the patch's array is the new value
+    @Test
+    void mergePatchReplacesArraysAndNonObjects() {
+        JsonNode merged = JsonPatches.merge(COURSE, json("{'lessons': [{'id': 3, 'name': 'Last'}], 'meta': 'none'}"));
+
+        assertThat(merged.get("lessons")).isEqualTo(json("[{'id': 3, 'name': 'Last'}]"));
+        assertThat(merged.get("meta")).isEqualTo(json("'none'"));
+        assertThat(JsonPatches.merge(COURSE, json("['whole']"))).isEqualTo(json("['whole']"));
+        assertThat(JsonPatches.merge(json("'text'"), json("{'a': {'b': null, 'c': 1}}")))
+                .isEqualTo(json("{'a': {'c': 1}}"));
+    }
+
+    @Test
+    void jsonPatchAppliesOperationsInOrder() {
+        JsonNode patched = JsonPatches.apply(COURSE, json("["
+                + "{'op': 'test', 'path': '/id', 'value': 7.0},"
+                + "{'op': 'replace', 'path': '/name', 'value': 'Modern Java'},"
+                + "{'op': 'add', 'path': '/lessons/-', 'value': {'id': 4}},"
+                + "{'op': 'add', 'path': '/lessons/0', 'value': {'id': 0}},"
+                + "{'op': 'remove', 'path': '/lessons/2'},"
+                + "{'op': 'move', 'from': '/meta/level', 'path': '/level'},"
+                + "{'op': 'copy', 'from': '/meta/tags/0', 'path': '/meta/tags/-'},"
+                + "{'op': 'add', 'path': '/meta/a~1b~0c', 'value': true}]"));
+
+        assertThat(patched).isEqualTo(json("{'id': 7, 'name': 'Modern Java', 'description': 'Basics',"
+                + " 'meta': {'tags': ['jvm', 'jvm'], 'a/b~c': true}, 'level': 'easy',"
+                + " 'lessons': [{'id': 0}, {'id': 1}, {'id': 3}, {'id': 4}]}"));
+        assertThat(COURSE.get("lessons")).hasSize(3);
+    }
+
+    @Test
+    void failedTestRejectsTheWholePatchWithConflict() {
+        JsonNode operations = json("[{'op': 'replace', 'path': '/name', 'value': 'Changed'},"
+                + "{'op': 'test', 'path': '/description', 'value': 'Advanced'}]");
+
+        assertStatus(operations, HttpStatus.CONFLICT);
+        assertStatus(json("[{'op': 'test', 'path': '/meta', 'value': {'level': 'easy', 'tags': []}}]"),
+                HttpStatus.CONFLICT);
+        assertThat(COURSE.get("name").asText()).isEqualTo("Java");
+    }
+
+    // The patch is well formed but the document does not have what it refers to
+    @Test
+    void missingTargetsAreConflicts() {
+        assertStatus(json("[{'op': 'remove', 'path': '/imageUrl'}]"), HttpStatus.CONFLICT);
+        assertStatus(json("[{'op': 'replace', 'path': '/imageUrl', 'value': 'x.png'}]"), HttpStatus.CONFLICT);
+        assertStatus(json("[{'op': 'remove', 'path': '/lessons/3'}]"), HttpStatus.CONFLICT);
+        assertStatus(json("[{'op': 'add', 'path': '/lessons/4', 'value': {}}]"), HttpStatus.CONFLICT);
+        assertStatus(json("[{'op': 'add', 'path': '/missing/name', 'value': 'x'}]"), HttpStatus.CONFLICT);
+        assertStatus(json("[{'op': 'test', 'path': '/missing', 'value': null}]"), HttpStatus.CONFLICT);
+        assertStatus(json("[{'op': 'move', 'from': '/missing', 'path': '/name'}]"), HttpStatus.CONFLICT);
+        assertStatus(json("[{'op': 'remove', 'path': ''}]"), HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void malformedPatchesAreBadRequests() {
+        assertStatus(json("{'op': 'remove', 'path': '/name'}"), HttpStatus.BAD_REQUEST);
+        assertStatus(json("[{'op': 'rename', 'path': '/name'}]"), HttpStatus.BAD_REQUEST);
+        assertStatus(json("[{'path': '/name'}]"), HttpStatus.BAD_REQUEST);
+        assertStatus(json("[{'op': 'add', 'path': '/name'}]"), HttpStatus.BAD_REQUEST);
+        assertStatus(json("[{'op': 'remove', 'path': 'name'}]"), HttpStatus.BAD_REQUEST);
+    }
+
+    private static void assertStatus(JsonNode operations, HttpStatus status) {
+        assertThatThrownBy(() -> JsonPatches.apply(COURSE, operations))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(status));
+    }
+
+    // JSON with single quotes, which read better in Java strings
+    private static JsonNode json(String text) {
+        try {
+            return MAPPER.readTree(text.replace('\'', '"'));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
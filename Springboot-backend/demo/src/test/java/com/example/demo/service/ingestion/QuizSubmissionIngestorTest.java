@@ -0,0 +1,226 @@
+package com.example.demo.service.ingestion;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.TestCourses;
+import com.example.demo.dto.QuizSubmissionStatus;
+import com.example.demo.entity.Course;
+import com.example.demo.entity.Lesson;
+import com.example.demo.service.CourseService;
+import com.example.demo.service.UserService;
+import com.example.demo.service.progress.ProgressStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The test profile sets quiz-ingestion.queue-capacity to 4. A worker is held up on the Progress row lock of its
+// user, so what the test queues behind it stays queued until the lock is released.
+@IntegrationTest
+class QuizSubmissionIngestorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProgressStore progressStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void queuedSubmissionsApplyInOrderAndAFailedGroupIsReplayedOneByOne() throws Exception {
+        Long userId = userService.registerUser(TestCourses.user("Queued learner")).getId();
+        Course course = courseService.addCourse(TestCourses.course("Queued course", 4, 1));
+        userService.enrollCourse(userId, course.getId());
+        List<Lesson> lessons = course.getLessons();
+
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> lockHolder = holdProgressLock(userId, course.getId(), release);
+        List<String> accepted = new ArrayList<>();
+        String invalid;
+        try {
+            accepted.add(submit(lessonQuiz(userId, course, lessons.get(0)), HttpStatus.ACCEPTED));
+            awaitBlockedSession();
+
+            // Behind the held worker: a keyed submission sent twice, one for a lesson the course does not have,
+            // and two more, which fill the queue
+            String keyed = submit(lessonQuiz(userId, course, lessons.get(1)).header("Idempotency-Key", "queued-1"),
+                    HttpStatus.ACCEPTED);
+            assertThat(submit(lessonQuiz(userId, course, lessons.get(1)).header("Idempotency-Key", "queued-1"),
+                    HttpStatus.ACCEPTED)).isEqualTo(keyed);
+            accepted.add(keyed);
+            invalid = submit(post("/users/{userId}/courses/{courseId}/lessons/{lessonId}/quiz",
+                    userId, course.getId(), Long.MAX_VALUE).param("async", "true")
+                    .contentType(MediaType.APPLICATION_JSON).content(answers(lessons.get(0))), HttpStatus.ACCEPTED);
+            accepted.add(submit(lessonQuiz(userId, course, lessons.get(2)), HttpStatus.ACCEPTED));
+            accepted.add(submit(lessonQuiz(userId, course, lessons.get(3)), HttpStatus.ACCEPTED));
+
+            submit(lessonQuiz(userId, course, lessons.get(3)), HttpStatus.TOO_MANY_REQUESTS);
+        } finally {
+            release.countDown();
+            lockHolder.get(30, TimeUnit.SECONDS);
+        }
+
+        // The group with the invalid submission rolls back and is replayed alone, so only that one fails;
+        // one worker per user applies the rest in the order they were sent
+        List<Long> quizSummaryIds = new ArrayList<>();
+        for (String submissionId : accepted) {
+            JsonNode status = awaitStatus(userId, submissionId);
+            assertThat(status.get("state").asText()).isEqualTo(QuizSubmissionStatus.State.COMMITTED.name());
+            quizSummaryIds.add(status.get("quizSummaryId").asLong());
+        }
+        assertThat(quizSummaryIds).isSorted().doesNotHaveDuplicates();
+        JsonNode failed = awaitStatus(userId, invalid);
+        assertThat(failed.get("state").asText()).isEqualTo(QuizSubmissionStatus.State.FAILED.name());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from quiz_summary where user_id = ?",
+                Long.class, userId)).isEqualTo(accepted.size());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from idempotency_keys where user_id = ?",
+                Long.class, userId)).isOne();
+    }
+
+    @Test
+    void shutdownDrainsWhatIsQueued() throws Exception {
+        Long userId = userService.registerUser(TestCourses.user("Draining learner")).getId();
+        Course course = courseService.addCourse(TestCourses.course("Draining course", 3, 1));
+        userService.enrollCourse(userId, course.getId());
+        // Its own instance, so stopping it leaves the application's workers running
+        QuizSubmissionIngestor ingestor = beanFactory.createBean(QuizSubmissionIngestor.class);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> lockHolder = holdProgressLock(userId, course.getId(), release);
+        List<String> queued = new ArrayList<>();
+        Thread stopping = new Thread(() -> beanFactory.destroyBean(ingestor), "quiz-ingest-stop");
+        try {
+            for (Lesson lesson : course.getLessons()) {
+                queued.add(ingestor.submitLessonQuiz(userId, course.getId(), lesson.getId(), null,
+                        TestCourses.correctAnswers(lesson.getQuiz())).getId());
+                if (queued.size() == 1) {
+                    awaitBlockedSession();
+                }
+            }
+            // stop() has stopped accepting and waits for the workers once its thread is in join()
+            stopping.start();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (stopping.getState() != Thread.State.TIMED_WAITING) {
+                assertThat(System.currentTimeMillis()).as("stop waiting for the workers").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+            Lesson lesson = course.getLessons().get(0);
+            assertThatThrownBy(() -> ingestor.submitLessonQuiz(userId, course.getId(), lesson.getId(), null,
+                    TestCourses.correctAnswers(lesson.getQuiz())))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        } finally {
+            release.countDown();
+            lockHolder.get(30, TimeUnit.SECONDS);
+        }
+        stopping.join(TimeUnit.SECONDS.toMillis(30));
+
+        assertThat(stopping.isAlive()).isFalse();
+        for (String submissionId : queued) {
+            assertThat(ingestor.getStatus(userId, submissionId).getState())
+                    .isEqualTo(QuizSubmissionStatus.State.COMMITTED);
+        }
+    }
+
+    private CompletableFuture<Void> holdProgressLock(Long userId, Long courseId, CountDownLatch release)
+            throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+                    progressStore.lock(userId, courseId);
+                    locked.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).as("progress row locked").isTrue();
+        return holder;
+    }
+
+    // The worker has taken the first submission off its queue once its session waits for the lock
+    private void awaitBlockedSession() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.sessions where blocker_id is not null", Long.class) == 0) {
+            assertThat(System.currentTimeMillis()).as("worker waiting for the lock").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private JsonNode awaitStatus(Long userId, String submissionId) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            String body = mockMvc.perform(get("/users/{userId}/quiz-submissions/{submissionId}", userId, submissionId))
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode status = objectMapper.readTree(body);
+            if (!status.get("state").asText().equals(QuizSubmissionStatus.State.QUEUED.name())) {
+                return status;
+            }
+            assertThat(System.currentTimeMillis()).as("submission %s applied", submissionId).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    // Returns the submission id when the expected status is 202
+    private String submit(MockHttpServletRequestBuilder request, HttpStatus expected) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().is(expected.value()))
+                .andReturn().getResponse().getContentAsString();
+        return expected == HttpStatus.ACCEPTED ? objectMapper.readTree(body).get("id").asText() : null;
+    }
+
+    private MockHttpServletRequestBuilder lessonQuiz(Long userId, Course course, Lesson lesson) throws Exception {
+        return post("/users/{userId}/courses/{courseId}/lessons/{lessonId}/quiz", userId, course.getId(), lesson.getId())
+                .param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(answers(lesson));
+    }
+
+    private String answers(Lesson lesson) throws Exception {
+        List<Object> answers = new ArrayList<>();
+        lesson.getQuiz().getQuestions().forEach(question -> answers.add(Map.of(
+                "question", Map.of("id", question.getId()),
+                "selectedOptionIndex", TestCourses.CORRECT_OPTION)));
+        return objectMapper.writeValueAsString(answers);
+    }
+}
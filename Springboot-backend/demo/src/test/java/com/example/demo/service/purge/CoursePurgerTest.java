@@ -0,0 +1,163 @@
+package com.example.demo.service.purge;
+
+import com.example.demo.DeleteStatements;
+import com.example.demo.IntegrationTest;
+import com.example.demo.TestCourses;
+import com.example.demo.entity.Course;
+import com.example.demo.entity.CoursePurge;
+import com.example.demo.repository.CourseRepository;
+import com.example.demo.repository.ProgressRepository;
+import com.example.demo.service.CourseService;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The test profile sets course-purge.batch-size to 2, so a handful of learners already takes several batches
+@IntegrationTest
+class CoursePurgerTest {
+
+    private static final int LEARNERS = 5;
+
+    @Value("${course-purge.batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private CoursePurger coursePurger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deletedCourseIsHiddenBeforeItsRowsArePurged() {
+        Long userId = userService.registerUser(TestCourses.user("Soft delete learner")).getId();
+        Long courseId = courseService.addCourse(TestCourses.course("Soft deleted course", 1, 1)).getId();
+        userService.enrollCourse(userId, courseId);
+
+        // The purge worker starts once the delete commits, so until then the rows are all still there
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            courseService.deleteCourse(courseId);
+
+            assertThat(countRows("select count(*) from course where id = ?", courseId)).isOne();
+            assertThat(countRows("select count(*) from progress where course_id = ?", courseId)).isOne();
+            assertThat(courseRepository.existsById(courseId)).isFalse();
+            assertThat(courseRepository.findAll()).extracting(Course::getId).doesNotContain(courseId);
+            assertThat(progressRepository.findCourseStatusesByUserId(userId)).isEmpty();
+        });
+
+        awaitCompleted(courseId);
+    }
+
+    @Test
+    void purgeRemovesLearnerRowsInBatchesAndThenTheContent() throws Exception {
+        Course course = courseService.addCourse(TestCourses.course("Purged course", 2, 2));
+        Long courseId = course.getId();
+        List<Long> quizIds = List.of(course.getIntroductoryQuiz().getId(), course.getFinalQuiz().getId(),
+                course.getLessons().get(0).getQuiz().getId(), course.getLessons().get(1).getQuiz().getId());
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < LEARNERS; i++) {
+            Long userId = userService.registerUser(TestCourses.user("Purged learner " + i)).getId();
+            userService.enrollCourse(userId, courseId);
+            userService.addIntroQuizSummary(userId, courseId, TestCourses.correctAnswers(course.getIntroductoryQuiz()));
+            userIds.add(userId);
+        }
+
+        DeleteStatements.clear();
+        mockMvc.perform(delete("/courses/{courseId}", courseId))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("PENDING"));
+        mockMvc.perform(delete("/courses/{courseId}", courseId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/courses/summaries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == %d)]", courseId).isEmpty());
+        for (Long userId : userIds) {
+            mockMvc.perform(get("/users/{userId}/enrolled-courses", userId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(0));
+        }
+
+        CoursePurge purge = awaitCompleted(courseId);
+
+        // Five progress rows, enrollments and attempts at two per batch: three batches each, none binding more
+        // than batch-size ids (the enrollment delete also binds the course id)
+        int batches = (LEARNERS + batchSize - 1) / batchSize;
+        for (String table : List.of("progress", "user_enrolled_courses", "quiz_summary")) {
+            List<String> deletes = DeleteStatements.from(table);
+            assertThat(deletes).as(table).hasSize(batches);
+            assertThat(deletes).as(table).allSatisfy(sql -> assertThat(sql.chars().filter(c -> c == '?').count())
+                    .isLessThanOrEqualTo(batchSize + 1));
+        }
+        assertThat(purge.getPhase()).isEqualTo(CoursePurge.Phase.CONTENT);
+        assertThat(purge.getRowsDeleted()).isPositive();
+        assertThat(countRows("select count(*) from progress where course_id = ?", courseId)).isZero();
+        assertThat(countRows("select count(*) from user_enrolled_courses where enrolled_courses_id = ?", courseId))
+                .isZero();
+        assertThat(countRows("select count(*) from course where id = ?", courseId)).isZero();
+        assertThat(countRows("select count(*) from course_lessons where course_id = ?", courseId)).isZero();
+        for (Long quizId : quizIds) {
+            assertThat(countRows("select count(*) from quiz_summary where quiz_id = ?", quizId)).isZero();
+            assertThat(countRows("select count(*) from quiz where id = ?", quizId)).isZero();
+        }
+
+        mockMvc.perform(get("/admin/course-purges/{courseId}", courseId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"));
+        mockMvc.perform(post("/admin/course-purges/{courseId}/retry", courseId))
+                .andExpect(status().isConflict());
+    }
+
+    // Polls the course_purges row; the worker wakes as soon as the delete commits
+    private CoursePurge awaitCompleted(Long courseId) {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            CoursePurge purge = coursePurger.getStatus(courseId);
+            if (purge.getState() == CoursePurge.State.COMPLETED) {
+                return purge;
+            }
+            assertThat(purge.getState()).isNotEqualTo(CoursePurge.State.FAILED);
+            assertThat(System.currentTimeMillis()).as("purge of course %d finished", courseId).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private long countRows(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseVectorIndexTest {
+
+    private final CourseVectorIndex index = new CourseVectorIndex();
+
+    @Test
+    void ranksByOverlapAndSkipsExcludedRemovedAndUnrelatedCourses() {
+        index.put(1, "spring boot hibernate transactions");
+        index.put(2, "spring boot hibernate");
+        index.put(3, "spring boot");
+        index.put(4, "gardening tomatoes");
+        index.put(5, "spring boot hibernate transactions caching");
+        index.remove(5);
+
+        CourseVectorIndex.QueryVector query = index.query(List.of("spring boot hibernate transactions"), List.of());
+
+        assertThat(index.topK(query, List.of(), 10)).containsExactly(1L, 2L, 3L);
+        assertThat(index.topK(query, List.of(1L), 10)).containsExactly(2L, 3L);
+        assertThat(index.topK(query, List.of(), 2)).containsExactly(1L, 2L);
+    }
+
+    // Score buffers are pooled, so every query must hand its buffer back cleared
+    @Test
+    void repeatedAndConcurrentQueriesAgree() throws Exception {
+        for (long id = 1; id <= 500; id++) {
+            index.put(id, "topic" + id % 7 + " level" + id % 11 + " unit" + id % 13 + " part" + id);
+        }
+        CourseVectorIndex.QueryVector query = index.query(List.of("topic3 level5 unit2"), List.of(42L));
+        long[] expected = index.topK(query, List.of(42L), 10);
+        assertThat(expected).hasSize(10).doesNotContain(42L);
+        assertThat(index.topK(query, List.of(), 10)).isNotEqualTo(expected);
+        assertThat(index.topK(query, List.of(42L), 10)).isEqualTo(expected);
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> index.topK(query, List.of(42L), 10)));
+            }
+            for (Future<long[]> result : results) {
+                assertThat(result.get()).isEqualTo(expected);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}